@@ -2,13 +2,9 @@ package example.com.customdrawerlayout;
 
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
-import android.view.View;
-import android.view.ViewTreeObserver;
-import android.widget.RelativeLayout;
 import android.widget.Toast;
 
 import com.blog.ljtatum.drxenocustomlayout.gui.CustomDrawerLayout;
-import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
 
 /**
  * Created by LJTat on 11/1/2017.
@@ -25,7 +21,8 @@ public class MainActivity extends AppCompatActivity {
 
         mCustomDrawerLayout = (CustomDrawerLayout) findViewById(R.id.sliding_layout);
         mCustomDrawerLayout.toggleGlobalTouchEvent(true);
-        mCustomDrawerLayout.setDefaultLockMode(CustomDrawerLayout.LockMode.LOCK_MODE_OPEN);
+        // offset is set with offsetFraction in the layout and resolved by the drawer
+        mCustomDrawerLayout.setDefaultLockMode(CustomDrawerLayout.LockMode.LOCK_MODE_CLOSED);
 
         // initialize listeners
         initializeListeners();
@@ -49,16 +46,5 @@ public class MainActivity extends AppCompatActivity {
                 Toast.makeText(MainActivity.this, "drawer closed", Toast.LENGTH_LONG).show();
             }
         });
-
-        // animate top and bottom views
-        ViewTreeObserver vto = mCustomDrawerLayout.getViewTreeObserver();
-        vto.addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-
-            @Override
-            public void onGlobalLayout() {
-                mCustomDrawerLayout.setOffsetHeight(mCustomDrawerLayout.getHeight() / 4);
-                mCustomDrawerLayout.setDefaultLockMode(CustomDrawerLayout.LockMode.LOCK_MODE_CLOSED);
-            }
-        });
     }
 }
@@ -1,37 +1,52 @@
 package com.blog.ljtatum.drxenocustomlayout.gui;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
-
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import android.support.annotation.AnyThread;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.v4.view.ViewConfigurationCompat;
-import android.support.v7.widget.LinearLayoutManager;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.view.NestedScrollingParent;
+import android.support.v4.view.NestedScrollingParentHelper;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Choreographer;
+import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.View;
-import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.WindowInsets;
 import android.view.animation.DecelerateInterpolator;
 import android.widget.FrameLayout;
-import android.widget.RelativeLayout;
 
 import com.blog.ljtatum.drxenocustomlayout.R;
 import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
 
-import static com.blog.ljtatum.drxenocustomlayout.utils.CustomDrawerLayoutUtils.getRawDisplayHeight;
+import java.util.ArrayList;
+
 import static com.blog.ljtatum.drxenocustomlayout.utils.CustomDrawerLayoutUtils.isClicked;
 
 /**
  * Created by LJTat on 11/1/2017.
  */
 
-public class CustomDrawerLayout extends FrameLayout {
+public class CustomDrawerLayout extends FrameLayout implements NestedScrollingParent {
 
     /**
      * Special value for the position of the layer.
@@ -39,53 +54,210 @@ public class CustomDrawerLayout extends FrameLayout {
      * the screen, and come from there into the viewable area</p>
      */
     public static final int GRAVITY_BOTTOM = 1;
+    /**
+     * Special value for the position of the layer.
+     * <p>GRAVITY_LEFT means that the view will stay attached to the left part of
+     * the screen, and come from there into the viewable area</p>
+     */
+    public static final int GRAVITY_LEFT = 2;
+    /**
+     * Special value for the position of the layer.
+     * <p>GRAVITY_RIGHT means that the view will stay attached to the right part of
+     * the screen, and come from there into the viewable area</p>
+     */
+    public static final int GRAVITY_RIGHT = 3;
+    /**
+     * Special value for the position of the layer.
+     * <p>GRAVITY_TOP means that the view will stay attached to the top part of
+     * the screen, and come from there into the viewable area</p>
+     */
+    public static final int GRAVITY_TOP = 4;
     private static final String TAG = CustomDrawerLayout.class.getSimpleName();
     /**
      * The default size of the panel that sticks out when closed
      */
     private static final int DEFAULT_SLIDING_LAYER_OFFSET = 100; // arbitrary value
 
+    /**
+     * Slide states reported to {@link OnSlideListener#onDrawerStateChanged(int)}
+     */
+    public static final int SLIDE_STATE_IDLE = 0;
+    public static final int SLIDE_STATE_DRAGGING = 1;
+    public static final int SLIDE_STATE_SETTLING = 2;
+
+    /**
+     * Classifications of a released touch gesture, see {@link #getLastGesture()}
+     */
+    static final int GESTURE_NONE = 0;
+    static final int GESTURE_DRAG = 1;
+    static final int GESTURE_FLING = 2;
+    static final int GESTURE_TAP = 3;
+    static final int GESTURE_HOLD = 4;
+
     /**
      * Duration for animations
      */
     private static final int TRANSLATION_ANIM_DURATION_SHORT = 200;
 
     /**
-     * Minimum distance to indicate fling
+     * Shortest duration for fling settle animations, one frame at 60fps
      */
-    private static final int MIN_DISTANCE_FOR_FLING = 10; // in dp
+    private static final int MIN_SETTLE_DURATION = 16;
 
     /**
      * The default lock mode state
      */
     private static final LockMode DEFAULT_LOCK_MODE_STATE = LockMode.LOCK_MODE_CLOSED; // default lock mode
+
+    /**
+     * The default settle mode
+     */
+    private static final SettleMode DEFAULT_SETTLE_MODE = SettleMode.SETTLE_MODE_FIXED;
+
+    /**
+     * The default culling mode
+     */
+    private static final CullingMode DEFAULT_CULLING_MODE = CullingMode.CULLING_MODE_NONE;
     // position of the last motion event
     private float mInitialCoordinate;
-    // offset between rawY coordinate and view-related Y coordinate
-    private float mTouchOffsetY;
-    // drag threshold
-    private int mTouchSlop;
-    private int mMinimumVelocity, mMaximumVelocity, mFlingDistance, mDelta, mLastCoordinate;
-    // the height of the panel that sticks out when closed
+    // position of the last down event, relative to the drawer
+    private float mDownX, mDownY;
+    // offset between raw coordinate and view-related coordinate
+    private float mTouchOffset;
+    private int mDelta, mLastCoordinate;
+    // the height of the panel that sticks out when closed, or width for left and right drawers
     private int mOffsetHeight;
+    // fraction of the drawer length that sticks out when closed, resolved when the size changes.
+    // Negative if the offset is set in pixels
+    private float mOffsetFraction;
+    // bounds for the offset resolved from the fraction, in pixels. Negative max if unbounded
+    private int mMinOffset, mMaxOffset;
     // value for the position of the layer in the screen
     private int mStickTo;
+    // axis strategy for the position of the layer, chosen once in the constructor
+    private final DrawerAxis mAxis;
+    // geometry snapshot, rebuilt when the size, offset, configuration, insets or parent size change
+    private DrawerGeometry mGeometry;
+    // system window insets dispatched to the drawer
+    private final Rect mInsets = new Rect();
     // lock mode state
     private LockMode mLockMode;
-    // value for the orientation of the layer in the screen
-    private ScrollState mScrollOrientation;
+    // sorted anchor table, precomputed when the size of the drawer changes
+    private final DrawerAnchors mAnchors;
+    // index of the anchor the drawer is resting on
+    private int mAnchorIndex;
+    // settle animation mode
+    private SettleMode mSettleMode;
     // flag for when drawer is initialized
     private boolean isDrawerInitialized;
     // flag to track if drawer is animating
     private boolean isAnimating;
+    // flag to track if the current gesture grabbed the drawer while it was animating
+    private boolean isSettleInterrupted;
+    // flag to track if the drawer left its anchor since it last rested
+    private boolean isMoving;
     // flag to disable touch events
-    private boolean isGlobalTouchEventDisabled, isFirstVisibleItemPos;
+    private boolean isGlobalTouchEventDisabled;
+    // drag handle, either a child view or an explicit rect, and edge zone, relative to the drawer
+    @IdRes
+    private int mDragHandleId;
+    private final Rect mDragHandleRect = new Rect();
+    private boolean isDragHandleRectExplicit;
+    private int mEdgeZoneSize;
+    private final Rect mEdgeZoneRect = new Rect();
+    // flag to track if the current gesture went down outside the drag handle and edge zone
+    private boolean isTouchOutsideHandle;
+    // nested scrolling state
+    private final NestedScrollingParentHelper mNestedScrollingParentHelper;
+    // flag to track if a nested scrolling child is scrolling, and if it moved the drawer
+    private boolean isNestedScrollInProgress, isNestedScrollDragged;
+    // fling velocity handed over by the nested scrolling child, in pixels per second
+    private float mNestedFlingVelocity;
+    // scrollable content of the drawer, only queried when a drag needs to be classified
+    @Nullable
+    private View mScrollableView;
+    // flag to track if the current gesture is handled by the scrollable view
+    private boolean isScrollableViewDragging;
     // interaction listener
     private OnInteractListener mOnInteractListener;
-    // velocity tracker
+    // interaction listeners added from any thread, notified in a batch on the next frame
+    private final DrawerListenerRegistry mListenerRegistry = new DrawerListenerRegistry();
+    // lock mode requests from any thread, coalesced to one animation per frame
+    private final DrawerCommandQueue mCommandQueue = new DrawerCommandQueue(this);
+    // anchor listener
+    private OnAnchorListener mOnAnchorListener;
+    private OnSlideListener mOnSlideListener;
+    // dispatches the slide offset at most once per frame, before the frame is drawn
+    private final SlidePreDrawListener mSlidePreDrawListener;
+    private float mLastSlideOffset;
+    private int mSlideState = SLIDE_STATE_IDLE;
+    // velocity tracker, obtained when attached to window and recycled when detached
     @Nullable
     private VelocityTracker mVelocityTracker;
-    private long mPressStartTime;
+    // time source for times that are not carried by a motion event
+    private DrawerClock mClock = DrawerClock.SYSTEM;
+    // records the motion events dispatched to the drawer, if set
+    @Nullable
+    private DrawerGestureRecorder mGestureRecorder;
+    // classification of the last released touch gesture
+    private int mLastGesture = GESTURE_NONE;
+    // reusable settle animation, advanced by the shared animation driver
+    private final SettleAnimation mSettleAnimation;
+    private final DecelerateInterpolator mSettleInterpolator;
+    // start and end position of the current settle animation
+    private float mSettleFrom, mSettleTo;
+    // start time and duration of the current settle animation, the start time is the frame time
+    // of the first frame of the animation
+    private long mSettleStartNanos, mSettleDurationNanos;
+    // flag to take the start time from the next frame
+    private boolean isSettleStartPending;
+    // anchor to apply once the current settle animation finishes
+    private int mSettleAnchorIndex;
+    // flag to notify state change once the current settle animation finishes
+    private boolean isSettleNotify;
+    // flag to apply drag moves once per frame instead of once per touch event
+    private boolean isDragCoalesced;
+    // reusable frame callback applying the latest drag position, allocated once per drawer
+    private final DragFrameCallback mDragFrameCallback;
+    // latest drag position not yet applied, and flag to track if a frame callback is posted
+    private float mPendingDragPosition;
+    private boolean isDragFramePending;
+    // extrapolates the finger coordinate to the expected display time while dragged
+    private final DrawerTouchPredictor mTouchPredictor;
+    // culling mode for children outside the part of the drawer that sticks out when closed
+    private CullingMode mCullingMode;
+    // flag to track if children are culled, only while the drawer rests closed
+    private boolean isCullingActive;
+    // part of the drawer that sticks out when closed, relative to the drawer
+    private final Rect mCullRect = new Rect();
+    // children hidden by CULLING_MODE_LAYOUT, all of them were visible before
+    private final ArrayList<View> mCulledChildren = new ArrayList<>();
+    // flag to render a snapshot of the content while the drawer moves
+    private boolean isSnapshotEnabled;
+    // flag to track if the content is rendered from a snapshot, if the bitmap is captured on the
+    // next draw, and if the snapshot went stale
+    private boolean isSnapshotActive, isSnapshotPending, isSnapshotInvalidated;
+    // snapshot of the content for software rendering, taken from the shared bitmap pool
+    @Nullable
+    private Bitmap mSnapshotBitmap;
+    private final Canvas mSnapshotCanvas = new Canvas();
+    // layer type to restore once the drawer rests, for hardware rendering
+    private int mRestoreLayerType;
+    // open state store and stable id of the row the drawer is bound to, when used in a list
+    @Nullable
+    private DrawerStateStore mStateStore;
+    private long mBoundId = DrawerStateStore.NO_ID;
+    // peek and content layout resources, 0 if not set
+    @LayoutRes
+    private int mPeekLayoutResId, mContentLayoutResId;
+    // inflates the content layout in the background, only created when a content layout is set
+    @Nullable
+    private DrawerContentLoader mContentLoader;
+    // content inflated listener
+    private OnContentInflatedListener mOnContentInflatedListener;
+    // frame timing monitor, only created when a performance listener is set
+    @Nullable
+    private DrawerFrameMonitor mFrameMonitor;
 
     /**
      * Constructor
@@ -116,16 +288,45 @@ public class CustomDrawerLayout extends FrameLayout {
     public CustomDrawerLayout(@NonNull Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
 
+        mAnchors = new DrawerAnchors();
+        mTouchPredictor = new DrawerTouchPredictor();
+        mNestedScrollingParentHelper = new NestedScrollingParentHelper(this);
+
         // get the attributes specified in attrs.xml
         TypedArray a = context.getTheme().obtainStyledAttributes(attrs,
                 R.styleable.CustomDrawerLayout, 0, 0);
 
         try {
-            // set default values for gravity, offset, lock mode
+            // set default values for gravity, offset, lock mode, settle mode
             mLockMode = DEFAULT_LOCK_MODE_STATE;
             mStickTo = a.getInteger(R.styleable.CustomDrawerLayout_stickTo, GRAVITY_BOTTOM);
             mOffsetHeight = a.getDimensionPixelSize(R.styleable.CustomDrawerLayout_offsetDistance,
                     DEFAULT_SLIDING_LAYER_OFFSET);
+            mOffsetFraction = a.getFloat(R.styleable.CustomDrawerLayout_offsetFraction, -1f);
+            mMinOffset = a.getDimensionPixelSize(R.styleable.CustomDrawerLayout_minOffsetDistance, 0);
+            mMaxOffset = a.getDimensionPixelSize(R.styleable.CustomDrawerLayout_maxOffsetDistance, -1);
+            mSettleMode = SettleMode.values()[a.getInt(R.styleable.CustomDrawerLayout_settleMode,
+                    DEFAULT_SETTLE_MODE.ordinal())];
+            mCullingMode = CullingMode.values()[a.getInt(R.styleable.CustomDrawerLayout_cullingMode,
+                    DEFAULT_CULLING_MODE.ordinal())];
+            isDragCoalesced = a.getBoolean(R.styleable.CustomDrawerLayout_coalesceDrag, false);
+            isSnapshotEnabled = a.getBoolean(R.styleable.CustomDrawerLayout_snapshotRendering, false);
+            mDragHandleId = a.getResourceId(R.styleable.CustomDrawerLayout_dragHandle, 0);
+            mEdgeZoneSize = a.getDimensionPixelSize(R.styleable.CustomDrawerLayout_edgeZoneSize, 0);
+            mTouchPredictor.setHorizon(a.getInt(R.styleable.CustomDrawerLayout_predictionHorizon, 0));
+            mPeekLayoutResId = a.getResourceId(R.styleable.CustomDrawerLayout_peekLayout, 0);
+            mContentLayoutResId = a.getResourceId(R.styleable.CustomDrawerLayout_contentLayout, 0);
+            // anchor points are declared as an integer-array of percentages of the open distance
+            final int anchorPointsResId = a.getResourceId(R.styleable.CustomDrawerLayout_anchorPoints, 0);
+            if (anchorPointsResId != 0) {
+                final int[] anchorPercentages = getResources().getIntArray(anchorPointsResId);
+                final float[] anchorPoints = new float[anchorPercentages.length];
+                for (int i = 0; i < anchorPercentages.length; i++) {
+                    anchorPoints[i] = anchorPercentages[i] / 100f;
+                }
+                mAnchors.setFractions(anchorPoints);
+            }
+            mAnchorIndex = getAnchorIndexForState(mLockMode);
 
             // set flag that drawer is initialized
             isDrawerInitialized = true;
@@ -133,23 +334,16 @@ public class CustomDrawerLayout extends FrameLayout {
             a.recycle();
         }
 
-        // get system constants for touch thresholds
-        final ViewConfiguration configuration = ViewConfiguration.get(context);
-        mTouchSlop = ViewConfigurationCompat.getScaledPagingTouchSlop(configuration);
-        mMinimumVelocity = configuration.getScaledMinimumFlingVelocity() * 2;
-        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
-        // set fling distance
-        final float density = context.getResources().getDisplayMetrics().density;
-        mFlingDistance = (int) (MIN_DISTANCE_FOR_FLING * density);
+        // set axis strategy, the touch and animation paths do not switch on gravity
+        mAxis = DrawerAxis.forGravity(mStickTo);
+        // touch thresholds are read from the geometry snapshot
+        mGeometry = DrawerGeometry.create(this, mAxis, mOffsetHeight, mInsets);
 
-        // set scroll orientation
-        if (mStickTo == GRAVITY_BOTTOM) {
-            // vertical scrolling
-            mScrollOrientation = ScrollState.VERTICAL;
-        } else {
-            // horizontal scrolling
-            mScrollOrientation = ScrollState.HORIZONTAL;
-        }
+        // settle animation is reused for every open/close animation to avoid allocations
+        mSettleAnimation = new SettleAnimation();
+        mSettleInterpolator = new DecelerateInterpolator();
+        mDragFrameCallback = new DragFrameCallback();
+        mSlidePreDrawListener = new SlidePreDrawListener();
     }
 
     /**
@@ -163,72 +357,352 @@ public class CustomDrawerLayout extends FrameLayout {
         mOnInteractListener = listener;
     }
 
+    /**
+     * Adds a listener to be invoked after a switch change {@link OnInteractListener}. Unlike the
+     * listener set with {@link #setOnInteractListener(OnInteractListener)}, added listeners are
+     * notified on the main thread in a single batch on the frame after the drawer settles. May be
+     * called from any thread
+     *
+     * @param listener Callback for when the user interacts with the drawer
+     */
+    @AnyThread
+    @SuppressWarnings("unused")
+    public void addOnInteractListener(@NonNull OnInteractListener listener) {
+        mListenerRegistry.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addOnInteractListener(OnInteractListener)}. May be
+     * called from any thread
+     *
+     * @param listener The listener to remove
+     */
+    @AnyThread
+    @SuppressWarnings("unused")
+    public void removeOnInteractListener(@NonNull OnInteractListener listener) {
+        mListenerRegistry.remove(listener);
+    }
+
+    /**
+     * Sets the listener to be invoked while the drawer slides {@link OnSlideListener}. The slide
+     * offset is reported at most once per frame, before the frame is drawn, therefore views
+     * updated from the callback move in the same frame as the drawer
+     *
+     * @param listener Callback for the slide offset and state of the drawer, may be null
+     */
+    @SuppressWarnings("unused")
+    public void setOnSlideListener(@Nullable OnSlideListener listener) {
+        final boolean isAttached = !Utils.checkIfNull(getWindowToken());
+        if (isAttached && !Utils.checkIfNull(mOnSlideListener)) {
+            getViewTreeObserver().removeOnPreDrawListener(mSlidePreDrawListener);
+        }
+        mOnSlideListener = listener;
+        if (!Utils.checkIfNull(listener)) {
+            mLastSlideOffset = getSlideOffset();
+            if (isAttached) {
+                getViewTreeObserver().addOnPreDrawListener(mSlidePreDrawListener);
+            }
+        }
+    }
+
+    /**
+     * Method is used to get the slide offset of the drawer
+     *
+     * @return The slide offset, where 0 is closed and 1 is fully opened
+     */
+    @SuppressWarnings("unused")
+    public float getSlideOffset() {
+        final float closedPosition = mAnchors.getPosition(0);
+        final float range = mAnchors.getPosition(mAnchors.getOpenIndex()) - closedPosition;
+        return range == 0 ? 0 : (mAxis.getPosition(this) - closedPosition) / range;
+    }
+
+    /**
+     * Method is used to get the distance the drawer moved from its closed position
+     *
+     * @return The signed distance along the axis of the drawer in pixels
+     */
+    float getSlideDistance() {
+        return mAxis.getPosition(this) - mAnchors.getPosition(0);
+    }
+
+    /**
+     * @return The axis strategy of the drawer
+     */
+    @NonNull
+    DrawerAxis getAxis() {
+        return mAxis;
+    }
+
+    /**
+     * Method is used to get the slide state of the drawer
+     *
+     * @return The slide state, e.g. {@link #SLIDE_STATE_IDLE}
+     */
+    @SuppressWarnings("unused")
+    public int getSlideState() {
+        return mSlideState;
+    }
+
+    /**
+     * Sets the listener to be invoked with the frame timing of every drag gesture and settle
+     * animation {@link DrawerPerformanceListener}. Frame timing is only collected while a
+     * listener is set
+     *
+     * @param listener Callback for the frame timing of the drawer, may be null to stop collecting
+     */
+    @SuppressWarnings("unused")
+    public void setDrawerPerformanceListener(@Nullable DrawerPerformanceListener listener) {
+        if (!Utils.checkIfNull(mFrameMonitor)) {
+            mFrameMonitor.cancel();
+        }
+        mFrameMonitor = Utils.checkIfNull(listener) ? null : new DrawerFrameMonitor(this, mAxis, listener);
+    }
+
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        // only the peek area is built at startup, the content is inflated off the critical path
+        if (mPeekLayoutResId != 0) {
+            LayoutInflater.from(getContext()).inflate(mPeekLayoutResId, this, true);
+        }
+        if (mContentLayoutResId != 0) {
+            setContentLayout(mContentLayoutResId);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        obtainVelocityTracker();
+        DrawerBitmapPool.onDrawerAttached();
+        if (!Utils.checkIfNull(mOnSlideListener)) {
+            getViewTreeObserver().addOnPreDrawListener(mSlidePreDrawListener);
+        }
+        if (!Utils.checkIfNull(mContentLoader)) {
+            mContentLoader.scheduleOnIdle();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (!Utils.checkIfNull(mOnSlideListener)) {
+            getViewTreeObserver().removeOnPreDrawListener(mSlidePreDrawListener);
+        }
+        // stop any running settle animation and jump to the resting state
+        if (isAnimating) {
+            cancelSettleAnimation();
+            notifyActionForAnchor(mSettleAnchorIndex, isSettleNotify);
+        }
+        if (!Utils.checkIfNull(mFrameMonitor)) {
+            mFrameMonitor.cancel();
+        }
+        flushDragPosition();
+        if (!Utils.checkIfNull(mContentLoader)) {
+            mContentLoader.cancelOnIdle();
+        }
+        stopSnapshot();
+        DrawerBitmapPool.onDrawerDetached();
+
+        if (!Utils.checkIfNull(mVelocityTracker)) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
         super.onLayout(changed, l, t, r, b);
 
+        // open and closed positions follow the parent, which can resize or move the drawer
+        // without the drawer changing size
+        final ViewParent parent = getParent();
+        if (parent instanceof View && (((View) parent).getWidth() != mGeometry.getParentWidth() ||
+                ((View) parent).getHeight() != mGeometry.getParentHeight() ||
+                mAxis.getLayoutPosition(this) != mGeometry.getOpenPosition())) {
+            updateGeometry();
+            repositionOnAnchor();
+        }
         if (isDrawerInitialized) {
-            post(new Runnable() {
-                @Override
-                public void run() {
-                    notifyActionForState(mLockMode, false);
-                }
-            });
+            // position the drawer within the first layout pass, anchors are already updated in
+            // onSizeChanged, therefore the first frame is drawn in the right state
+            notifyActionForState(mLockMode, false);
             // reset initialized flag
             isDrawerInitialized = false;
         }
+        // hit rects are precomputed so that a touch down only compares coordinates
+        updateDragHandleRects();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        final SavedState savedState = new SavedState(super.onSaveInstanceState());
+        // a settling drawer is saved in the state it is heading to
+        savedState.mAnchorIndex = isAnimating ? mSettleAnchorIndex : mAnchorIndex;
+        savedState.mLockMode = getLockModeForAnchor(savedState.mAnchorIndex).ordinal();
+        savedState.mOffsetHeight = mOffsetHeight;
+        savedState.mOffsetFraction = mOffsetFraction;
+        return savedState;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        final SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+
+        mOffsetHeight = savedState.mOffsetHeight;
+        mOffsetFraction = savedState.mOffsetFraction;
+        resolveOffsetFraction();
+        updateGeometry();
+        mLockMode = LockMode.values()[savedState.mLockMode];
+        mAnchorIndex = Math.max(0, Math.min(savedState.mAnchorIndex, mAnchors.getOpenIndex()));
+        if (getLockModeForAnchor(mAnchorIndex) != mLockMode) {
+            // anchor points changed, keep the lock mode
+            mAnchorIndex = getAnchorIndexForState(mLockMode);
+        }
+        if (!isDrawerInitialized) {
+            // already laid out, otherwise the drawer is positioned in the first layout pass
+            cancelSettleAnimation();
+            notifyActionForAnchor(mAnchorIndex, false);
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // the offset is resolved within the layout pass, no layout listener is needed
+        resolveOffsetFraction();
+        updateGeometry();
+        repositionOnAnchor();
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // display size and density dependent thresholds may have changed
+        updateGeometry();
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT_WATCH)
+    @Override
+    public WindowInsets onApplyWindowInsets(WindowInsets insets) {
+        mInsets.set(insets.getSystemWindowInsetLeft(), insets.getSystemWindowInsetTop(),
+                insets.getSystemWindowInsetRight(), insets.getSystemWindowInsetBottom());
+        updateGeometry();
+        return super.onApplyWindowInsets(insets);
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (isSnapshotPending) {
+            captureSnapshot();
+        }
+        if (isSnapshotActive && !Utils.checkIfNull(mSnapshotBitmap)) {
+            // the snapshot is translated with the drawer instead of drawing every child
+            canvas.drawBitmap(mSnapshotBitmap, 0, 0, null);
+            return;
+        }
+        if (!isCullingActive) {
+            super.dispatchDraw(canvas);
+            return;
+        }
+        // only the part that sticks out is visible, avoid overdraw of partially visible children
+        final int saveCount = canvas.save();
+        canvas.clipRect(mCullRect);
+        super.dispatchDraw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (isCullingActive && !isInCullRect(child)) {
+            // child is fully outside the part of the drawer that sticks out when closed
+            return false;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        // content changed while rendered from a snapshot, fall back to live rendering
+        invalidateSnapshot();
+        return super.invalidateChildInParent(location, dirty);
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        if (!Utils.checkIfNull(mGestureRecorder)) {
+            mGestureRecorder.record(event);
+        }
+        // the hit test runs before the children see the touch down, they may start a nested scroll
+        updateTouchOutsideHandle(event);
+        return super.dispatchTouchEvent(event);
     }
 
     @Override
     public boolean onInterceptTouchEvent(@NonNull MotionEvent event) {
-        // ignore touch events if disabled
-        if (isGlobalTouchEventDisabled) {
+        // ignore touch events if disabled, or if a nested scrolling child or the scrollable view
+        // is handling them
+        if (isGlobalTouchEventDisabled || isNestedScrollInProgress ||
+                (isScrollableViewDragging && event.getAction() != MotionEvent.ACTION_DOWN)) {
             return false;
         }
+        // touches outside the drag handle go straight to the children
+        if (isTouchOutsideHandle) {
+            return false;
+        }
+
+        // add velocity movements
+        obtainVelocityTracker();
+        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+            // reset velocity tracker for new gesture
+            mVelocityTracker.clear();
+        }
+        addVelocityMovement(event);
 
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
-                switch (mStickTo) {
-                    case GRAVITY_BOTTOM:
-                        mInitialCoordinate = event.getY();
-                        break;
+                mInitialCoordinate = mAxis.getCoordinate(event);
+                mDownX = event.getX();
+                mDownY = event.getY();
+                isScrollableViewDragging = false;
+                mTouchPredictor.reset();
+
+                // grab the drawer if it is settling, the current position becomes the drag origin
+                if (interruptSettleAnimation()) {
+                    return true;
                 }
                 break;
 
             case MotionEvent.ACTION_MOVE:
-                float coordinate = 0;
-                switch (mStickTo) {
-                    case GRAVITY_BOTTOM:
-                        coordinate = event.getY();
-                        break;
-                    default:
-                        break;
-                }
-
+                final float coordinate = mAxis.getCoordinate(event);
                 final int diff = (int) Math.abs(coordinate - mInitialCoordinate);
 
                 // confirm that difference is enough to indicate drag action
-                if (diff > mTouchSlop) {
+                if (diff > mGeometry.getTouchSlop()) {
+                    // the drawer is about to move
+                    prepareToMove();
+                    // let the scrollable view handle drags that it can scroll
+                    if (canScrollableViewScroll(coordinate - mInitialCoordinate)) {
+                        isScrollableViewDragging = true;
+                        break;
+                    }
+
                     // start capturing events
                     Log.d(TAG, "drag is being captured");
-                    mTouchOffsetY = Math.abs(getY() - event.getRawY());
+                    mTouchOffset = mAxis.getRawCoordinate(event) - mAxis.getPosition(this);
+                    // the latency is measured from the move that confirmed the drag, not from the
+                    // touch down, the finger may take a while to cross the touch slop
+                    startFrameMonitor(DrawerFrameStats.PHASE_DRAG, event.getEventTime() * 1000000L);
                     return true;
                 }
                 break;
-
-            case MotionEvent.ACTION_UP:
-                if (!Utils.checkIfNull(mVelocityTracker)) {
-                    mVelocityTracker.recycle();
-                    mVelocityTracker = null;
-                }
-                break;
-        }
-        // add velocity movements
-        if (Utils.checkIfNull(mVelocityTracker)) {
-            mVelocityTracker = VelocityTracker.obtain();
         }
-        mVelocityTracker.addMovement(event);
-
         return super.onInterceptTouchEvent(event);
     }
 
@@ -237,129 +711,253 @@ public class CustomDrawerLayout extends FrameLayout {
         if (event.getAction() == MotionEvent.ACTION_DOWN && event.getEdgeFlags() != 0) {
             return false;
         }
+        if (isTouchOutsideHandle) {
+            return false;
+        }
 
         // add velocity movements
-        if (Utils.checkIfNull(mVelocityTracker)) {
-            mVelocityTracker = VelocityTracker.obtain();
+        obtainVelocityTracker();
+        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+            // reset velocity tracker for new gesture
+            mVelocityTracker.clear();
         }
-        mVelocityTracker.addMovement(event);
-
-        final View parent = (View) getParent();
-        final int coordinate;
-        final int tapCoordinate;
+        addVelocityMovement(event);
 
-        switch (mStickTo) {
-            case GRAVITY_BOTTOM:
-                coordinate = (int) event.getRawY();
-                tapCoordinate = (int) event.getRawY();
-                break;
-            // if view position is not initialized throw an error
-            default:
-                throw new IllegalStateException("Failed to initialize coordinates");
-        }
+        final int coordinate = (int) mAxis.getRawCoordinate(event);
 
         switch (event.getAction() & MotionEvent.ACTION_MASK) {
             case MotionEvent.ACTION_DOWN:
-                switch (mStickTo) {
-                    case GRAVITY_BOTTOM:
-                        mDelta = coordinate - ((RelativeLayout.LayoutParams) getLayoutParams()).topMargin;
-                        break;
-                    default:
-                        break;
-                }
+                flushDragPosition();
+                final ViewGroup.LayoutParams params = getLayoutParams();
+                mDelta = params instanceof ViewGroup.MarginLayoutParams ?
+                        coordinate - mAxis.getLeadingMargin((ViewGroup.MarginLayoutParams) params) :
+                        coordinate;
+
+                // grab the drawer if it is settling, e.g. when global touch events are disabled
+                interruptSettleAnimation();
 
                 mLastCoordinate = coordinate;
-                mTouchOffsetY = Math.abs(getY() - mLastCoordinate);
-                mPressStartTime = System.currentTimeMillis();
+                mTouchOffset = mLastCoordinate - mAxis.getPosition(this);
+                mTouchPredictor.reset();
+                prepareToMove();
                 break;
 
             case MotionEvent.ACTION_MOVE:
-                float newY = coordinate - mTouchOffsetY;
-                if (newY < 0) {
-                    setY(0);
-                } else if (newY > parent.getHeight() - mOffsetHeight) {
-                    setY(parent.getHeight() - mOffsetHeight);
+                // keep the drawer between its fully opened and closed positions
+                final float openPosition = mAnchors.getPosition(mAnchors.getOpenIndex());
+                final float closedPosition = mAnchors.getPosition(0);
+                final float target = mTouchPredictor.isEnabled() ? predictTouchCoordinate(event) : coordinate;
+                final float position = Math.max(Math.min(openPosition, closedPosition),
+                        Math.min(Math.max(openPosition, closedPosition), target - mTouchOffset));
+                if (position != mAxis.getPosition(this)) {
+                    onStartMoving();
+                    // taps and holds are not drags, the drag phase starts with the first move
+                    startFrameMonitor(DrawerFrameStats.PHASE_DRAG, event.getEventTime() * 1000000L);
+                    setSlideState(SLIDE_STATE_DRAGGING);
+                }
+                if (isDragCoalesced) {
+                    // only record the latest position, it is applied once on the next frame
+                    mPendingDragPosition = position;
+                    if (!isDragFramePending) {
+                        isDragFramePending = true;
+                        Choreographer.getInstance().postFrameCallback(mDragFrameCallback);
+                    }
                 } else {
-                    setY(newY);
+                    mAxis.setPosition(this, position);
                 }
                 break;
 
             case MotionEvent.ACTION_UP:
+                // the release settles from the latest drag position
+                flushDragPosition();
+                stopFrameMonitor();
                 final int diff = coordinate - mLastCoordinate;
-                final long pressDuration = System.currentTimeMillis() - mPressStartTime;
-
-                switch (mStickTo) {
-                    case GRAVITY_BOTTOM:
-                        // determine velocity
-                        int relativeVelocity;
-                        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
-                        final int initialVelocityY = (int) mVelocityTracker.getYVelocity();
-                        relativeVelocity = initialVelocityY * -1;
-
-                        // take absolute value to have positive values
-                        final int absoluteVelocity = Math.abs(relativeVelocity);
-
-                        if (!isAnimating) {
-                            if (Math.abs(diff) > mTouchSlop && mDelta > mFlingDistance) {
-                                // drag action
-                                // smooth scroll
-                                smoothScrollToAndNotify(diff);
-                            } else if (absoluteVelocity > mMinimumVelocity && mDelta > mFlingDistance) {
-                                // fling action
-                                if (tapCoordinate > parent.getHeight() - mOffsetHeight &&
-                                        mLockMode == LockMode.LOCK_MODE_CLOSED) {
-                                    notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, true);
-                                } else if (Math.abs(getRawDisplayHeight(getContext()) -
-                                        tapCoordinate - getHeight()) < mOffsetHeight &&
-                                        mLockMode == LockMode.LOCK_MODE_OPEN) {
-                                    notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, true);
-                                } else {
-                                    // no change in state, therefore no reason to notify state change. Boolean set to false
-                                    notifyActionAndAnimateForState(mLockMode, false);
-                                }
-                            } else {
-                                // tap action
-                                if (isClicked(getContext(), diff, pressDuration)) {
-                                    if (mLockMode == LockMode.LOCK_MODE_CLOSED) {
-                                        notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, true);
-                                    } else {
-                                        notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, true);
-                                    }
-                                } else {
-                                    // no change in state, therefore no reason to notify state change. Boolean set to false
-                                    notifyActionAndAnimateForState(mLockMode, false);
-                                }
-                            }
+                // event times keep the classification independent of the wall clock
+                final long pressDuration = event.getEventTime() - event.getDownTime();
+
+                // determine velocity
+                mVelocityTracker.computeCurrentVelocity(1000, mGeometry.getMaximumVelocity());
+                final float velocity = mAxis.getVelocity(mVelocityTracker);
+
+                // take absolute value to have positive values
+                final float absoluteVelocity = Math.abs(velocity);
+
+                if (Math.abs(diff) > mGeometry.getTouchSlop() && mDelta > mGeometry.getFlingDistance()) {
+                    // drag action
+                    // smooth scroll
+                    mLastGesture = GESTURE_DRAG;
+                    smoothScrollToAndNotify(velocity);
+                } else if (absoluteVelocity > mGeometry.getMinimumVelocity() &&
+                        mDelta > mGeometry.getFlingDistance()) {
+                    // fling action, moves the drawer to the next anchor in the fling direction. When
+                    // opened or closed, the fling has to be on the part that sticks out when closed
+                    mLastGesture = GESTURE_FLING;
+                    if (mLockMode == LockMode.LOCK_MODE_ANCHORED ||
+                            mAxis.isInOffsetRegion(mAxis.getCoordinate(event), mGeometry.getLength(),
+                                    mGeometry.getOffset())) {
+                        smoothScrollToAndNotify(velocity);
+                    } else {
+                        // no change in state, therefore no reason to notify state change. Boolean set to false
+                        notifyActionAndAnimateForState(mLockMode, false, velocity);
+                    }
+                } else {
+                    // tap action
+                    mLastGesture = GESTURE_HOLD;
+                    if (isSettleInterrupted) {
+                        // drawer was only held, resume the interrupted animation
+                        animateToAnchor(mSettleAnchorIndex, isSettleNotify, velocity);
+                    } else if (isClicked(mGeometry.getDensity(), diff, pressDuration)) {
+                        mLastGesture = GESTURE_TAP;
+                        if (mLockMode == LockMode.LOCK_MODE_CLOSED) {
+                            notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, true);
+                        } else {
+                            notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, true);
                         }
-                        break;
+                    } else {
+                        // no change in state, therefore no reason to notify state change. Boolean set to false
+                        notifyActionAndAnimateForState(mLockMode, false);
+                    }
+                }
+                isSettleInterrupted = false;
+                break;
+
+            case MotionEvent.ACTION_CANCEL:
+                flushDragPosition();
+                stopFrameMonitor();
+                // resume the interrupted animation, otherwise settle to the nearest anchor
+                if (isSettleInterrupted) {
+                    animateToAnchor(mSettleAnchorIndex, isSettleNotify, 0);
+                    isSettleInterrupted = false;
+                } else {
+                    smoothScrollToAndNotify(0);
                 }
                 break;
         }
         return true;
     }
 
+    @Override
+    public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int nestedScrollAxes) {
+        // nested scrolls of gestures that went down outside the drag handle only scroll the content
+        return !isTouchOutsideHandle && (nestedScrollAxes & mAxis.getNestedScrollAxis()) != 0;
+    }
+
+    @Override
+    public void onNestedScrollAccepted(@NonNull View child, @NonNull View target, int nestedScrollAxes) {
+        mNestedScrollingParentHelper.onNestedScrollAccepted(child, target, nestedScrollAxes);
+        // grab the drawer if it is settling
+        interruptSettleAnimation();
+        isNestedScrollInProgress = true;
+        isNestedScrollDragged = false;
+        mNestedFlingVelocity = 0;
+        prepareToMove();
+    }
+
+    @Override
+    public void onNestedPreScroll(@NonNull View target, int dx, int dy, @NonNull int[] consumed) {
+        // dragging the content in the opening direction opens the drawer first
+        final int delta = mAxis.select(dx, dy);
+        if (isOpeningDirection(-delta)) {
+            consumed[mAxis.getConsumedIndex()] = moveByNestedScroll(delta);
+        }
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed,
+                               int dxUnconsumed, int dyUnconsumed) {
+        // once the content cannot scroll any further, the remaining scroll closes the drawer
+        final int delta = mAxis.select(dxUnconsumed, dyUnconsumed);
+        if (delta != 0 && !isOpeningDirection(-delta)) {
+            moveByNestedScroll(delta);
+        }
+    }
+
+    @Override
+    public boolean onNestedPreFling(@NonNull View target, float velocityX, float velocityY) {
+        // the drawer consumes the fling unless it is fully opened and the content can fling
+        if (isNestedScrollDragged &&
+                mAxis.getPosition(this) != mAnchors.getPosition(mAnchors.getOpenIndex())) {
+            // the drawer moves with the finger, opposite to the content
+            mNestedFlingVelocity = -mAxis.select(velocityX, velocityY);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onNestedFling(@NonNull View target, float velocityX, float velocityY, boolean consumed) {
+        return false;
+    }
+
+    @Override
+    public void onStopNestedScroll(@NonNull View target) {
+        mNestedScrollingParentHelper.onStopNestedScroll(target);
+        isNestedScrollInProgress = false;
+        stopFrameMonitor();
+
+        if (isNestedScrollDragged) {
+            // settle to the anchor selected by the handed over fling velocity
+            smoothScrollToAndNotify(mNestedFlingVelocity);
+        } else if (isSettleInterrupted) {
+            // drawer was not moved, resume the interrupted animation
+            animateToAnchor(mSettleAnchorIndex, isSettleNotify, 0);
+        }
+        isNestedScrollDragged = false;
+        isSettleInterrupted = false;
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return mNestedScrollingParentHelper.getNestedScrollAxes();
+    }
+
     /**
-     * Method is used to animate the view to the given position
+     * Method is used to move the drawer by a nested scroll delta, clamped between the fully
+     * opened and closed positions
      *
-     * @param diff The difference in position of the drawer
+     * @param delta The scroll delta of the nested scrolling child, positive towards the end of
+     *              the content
+     * @return The part of the delta consumed by the drawer
      */
-    private void smoothScrollToAndNotify(int diff) {
-        int length = getLength();
-        if (diff > 0) {
-            if (diff > length / 5.0) {
-                notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, true);
-            } else {
-                // no change in state, therefore no reason to notify state change. Boolean set to false
-                notifyActionAndAnimateForState(mLockMode, false);
-            }
-        } else {
-            if (Math.abs(diff) > length / 5.0) {
-                notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, true);
-            } else {
-                // no change in state, therefore no reason to notify state change. Boolean set to false
-                notifyActionAndAnimateForState(mLockMode, false);
-            }
+    private int moveByNestedScroll(int delta) {
+        final float openPosition = mAnchors.getPosition(mAnchors.getOpenIndex());
+        final float closedPosition = mAnchors.getPosition(0);
+        final float position = mAxis.getPosition(this);
+        final float newPosition = Math.max(Math.min(openPosition, closedPosition),
+                Math.min(Math.max(openPosition, closedPosition), position - delta));
+        if (newPosition == position) {
+            return 0;
         }
+        onStartMoving();
+        startFrameMonitor(DrawerFrameStats.PHASE_DRAG, mClock.nanoTime());
+        setSlideState(SLIDE_STATE_DRAGGING);
+        mAxis.setPosition(this, newPosition);
+        isNestedScrollDragged = true;
+        return Math.round(position - newPosition);
+    }
+
+    /**
+     * Method is used to check if a movement opens the drawer
+     *
+     * @param delta The movement along the axis
+     * @return True if the movement is towards the fully opened position, otherwise false
+     */
+    private boolean isOpeningDirection(float delta) {
+        return delta * (mAnchors.getPosition(mAnchors.getOpenIndex()) - mAnchors.getPosition(0)) > 0;
+    }
+
+    /**
+     * Method is used to animate the view to the anchor selected by the release position and
+     * velocity. A fling moves the drawer to the next anchor in the direction of the fling,
+     * otherwise the drawer settles to the nearest anchor
+     *
+     * @param velocity The release velocity in pixels per second
+     */
+    private void smoothScrollToAndNotify(float velocity) {
+        final int anchorIndex = mAnchors.findTargetIndex(mAxis.getPosition(this), velocity,
+                mGeometry.getMinimumVelocity());
+        // only notify if there is a change in state
+        animateToAnchor(anchorIndex, anchorIndex != mAnchorIndex, velocity);
     }
 
     /**
@@ -370,158 +968,1031 @@ public class CustomDrawerLayout extends FrameLayout {
      * @param notify       True to log the animation progress of the drawer, otherwise false
      */
     private void notifyActionAndAnimateForState(@NonNull final LockMode stateToApply, final boolean notify) {
-        final View parent = (View) getParent();
-
-        switch (mStickTo) {
-            case GRAVITY_BOTTOM:
-                switch (stateToApply) {
-                    case LOCK_MODE_OPEN:
-                        isAnimating = true;
-                        animate().y(0)
-                                .setDuration(TRANSLATION_ANIM_DURATION_SHORT)
-                                .setInterpolator(new DecelerateInterpolator())
-                                .setListener(new AnimatorListenerAdapter() {
-                                    @Override
-                                    public void onAnimationEnd(Animator animation) {
-                                        super.onAnimationEnd(animation);
-                                        isAnimating = false;
-                                        notifyActionForState(stateToApply, notify);
-                                        animate().setListener(null);
-                                    }
-                                });
-                        break;
-                    case LOCK_MODE_CLOSED:
-                        isAnimating = true;
-                        animate().y(parent.getHeight() - mOffsetHeight)
-                                .setDuration(TRANSLATION_ANIM_DURATION_SHORT)
-                                .setInterpolator(new DecelerateInterpolator())
-                                .setListener(new AnimatorListenerAdapter() {
-                                    @Override
-                                    public void onAnimationEnd(Animator animation) {
-                                        super.onAnimationEnd(animation);
-                                        isAnimating = false;
-                                        notifyActionForState(stateToApply, notify);
-                                        animate().setListener(null);
-                                    }
-                                });
-                        break;
-                }
-                break;
-        }
+        notifyActionAndAnimateForState(stateToApply, notify, 0);
     }
 
     /**
-     * Method is used to update params based on gravity in order to position stickyTo
+     * Method is used to perform the animations
      *
      * @param stateToApply The drawer architecture has multiple states e.g.
      *                     LOCK_MODE_OPEN, LOCK_MODE_CLOSED
      * @param notify       True to log the animation progress of the drawer, otherwise false
+     * @param velocity     The release velocity in pixels per second, used by
+     *                     {@link SettleMode#SETTLE_MODE_FLING}
      */
-    public void notifyActionForState(LockMode stateToApply, boolean notify) {
-        if (Utils.checkIfNull(stateToApply)) {
-            stateToApply = mLockMode;
-        }
-
-        switch (mStickTo) {
-            case GRAVITY_BOTTOM:
-                switch (stateToApply) {
-                    case LOCK_MODE_OPEN:
-                        setY(0);
-                        break;
-                    case LOCK_MODE_CLOSED:
-                        setY(getHeight() - mOffsetHeight);
-                        break;
-                }
-                break;
-            default:
-                break;
-        }
-        if (notify) {
-            notifyActionFinished(stateToApply);
-        }
+    private void notifyActionAndAnimateForState(@NonNull final LockMode stateToApply, final boolean notify,
+                                                float velocity) {
+        animateToAnchor(getAnchorIndexForState(stateToApply), notify, velocity);
     }
 
     /**
-     * Method is used to notify a change in the lock state of the drawer
+     * Method is used to animate the drawer to an anchor
+     *
+     * @param anchorIndex The index of the anchor to animate to
+     * @param notify      True to log the animation progress of the drawer, otherwise false
+     * @param velocity    The release velocity in pixels per second, used by
+     *                    {@link SettleMode#SETTLE_MODE_FLING}
+     */
+    private void animateToAnchor(int anchorIndex, boolean notify, float velocity) {
+        startSettleAnimation(mAnchors.getPosition(anchorIndex), anchorIndex, notify, velocity);
+    }
+
+    /**
+     * Method is used to start the reusable settle animation towards the given position
+     *
+     * @param toPosition  The position to animate the drawer to
+     * @param anchorIndex The index of the anchor to apply once the animation finishes
+     * @param notify      True to log the animation progress of the drawer, otherwise false
+     * @param velocity    The release velocity in pixels per second
+     */
+    private void startSettleAnimation(float toPosition, int anchorIndex, boolean notify, float velocity) {
+        // restart from the current position if an animation is already running
+        cancelSettleAnimation();
+        flushDragPosition();
+        prepareToMove();
+
+        mSettleFrom = mAxis.getPosition(this);
+        mSettleTo = toPosition;
+        if (mSettleTo != mSettleFrom) {
+            onStartMoving();
+        }
+        mSettleAnchorIndex = anchorIndex;
+        isSettleNotify = notify;
+        isAnimating = true;
+        setSlideState(SLIDE_STATE_SETTLING);
+        mSettleDurationNanos = getSettleDuration(mSettleTo - mSettleFrom, velocity) * 1000000L;
+        isSettleStartPending = true;
+        startFrameMonitor(DrawerFrameStats.PHASE_SETTLE, mClock.nanoTime());
+        DrawerAnimationDriver.getInstance().add(mSettleAnimation);
+    }
+
+    /**
+     * Method is used to get the duration of a settle animation. In fling mode the duration is
+     * derived from the release velocity so that the drawer leaves the finger at the speed it was
+     * flung. The decelerate interpolator starts at twice the average speed, therefore the
+     * duration that matches the release velocity is 2 * distance / velocity
+     *
+     * @param distance The distance to travel in pixels, signed
+     * @param velocity The release velocity in pixels per second, signed
+     * @return The duration of the settle animation in milliseconds
+     */
+    private long getSettleDuration(float distance, float velocity) {
+        if (mSettleMode == SettleMode.SETTLE_MODE_FIXED) {
+            return TRANSLATION_ANIM_DURATION_SHORT;
+        }
+
+        // never take longer than a full length travel at the fixed duration
+        final int length = mGeometry.getLength();
+        long duration = length > 0 ? (long) (TRANSLATION_ANIM_DURATION_SHORT * Math.abs(distance) / length) :
+                TRANSLATION_ANIM_DURATION_SHORT;
+        // only use the velocity if the drawer is flung towards its target
+        if (Math.abs(velocity) > mGeometry.getMinimumVelocity() && Math.signum(velocity) == Math.signum(distance)) {
+            duration = Math.min(duration, (long) (2000 * Math.abs(distance / velocity)));
+        }
+        return Math.max(MIN_SETTLE_DURATION, duration);
+    }
+
+    /**
+     * Method is used to cancel the settle animation without applying its end state
+     */
+    private void cancelSettleAnimation() {
+        if (isAnimating) {
+            // report the frames of the cancelled settle animation
+            stopFrameMonitor();
+        }
+        isAnimating = false;
+        // always remove, the animation is still registered while its final frame notifies
+        DrawerAnimationDriver.getInstance().remove(mSettleAnimation);
+    }
+
+    /**
+     * Method is used to run the settle animation to completion right away
+     */
+    @VisibleForTesting
+    void endSettleAnimation() {
+        if (isAnimating) {
+            DrawerAnimationDriver.getInstance().remove(mSettleAnimation);
+            if (isSettleStartPending) {
+                isSettleStartPending = false;
+                mSettleStartNanos = mClock.nanoTime();
+            }
+            mSettleAnimation.doAnimationFrame(mSettleStartNanos + mSettleDurationNanos);
+        }
+    }
+
+    /**
+     * Method is used to stop a running settle animation so that the drawer can be grabbed at its
+     * current position. The state the animation was heading to is kept so that it can be resumed
+     *
+     * @return True if a settle animation was interrupted, otherwise false
+     */
+    private boolean interruptSettleAnimation() {
+        if (!isAnimating) {
+            return false;
+        }
+        cancelSettleAnimation();
+        isSettleInterrupted = true;
+        return true;
+    }
+
+    /**
+     * Method is used to start collecting frame timing for a phase, if a performance listener is set
+     *
+     * @param phase          The phase, e.g. {@link DrawerFrameStats#PHASE_DRAG}
+     * @param inputTimeNanos The time of the input that started the phase, in the
+     *                       {@link System#nanoTime()} time base
+     */
+    private void startFrameMonitor(int phase, long inputTimeNanos) {
+        if (!Utils.checkIfNull(mFrameMonitor)) {
+            mFrameMonitor.start(phase, inputTimeNanos);
+        }
+    }
+
+    /**
+     * Method is used to stop collecting frame timing and report the current phase
+     */
+    private void stopFrameMonitor() {
+        if (!Utils.checkIfNull(mFrameMonitor)) {
+            mFrameMonitor.stop();
+        }
+    }
+
+    /**
+     * Method is used to prepare the children for a drag or animation. The content layout is
+     * inflated if it was not yet inflated
+     */
+    private void prepareToMove() {
+        prefetchContent();
+    }
+
+    /**
+     * Method is used to apply the changes needed once the drawer leaves its anchor. Called on
+     * the first position change of a drag, nested scroll or settle animation, not when a gesture
+     * only touches the drawer
+     */
+    private void onStartMoving() {
+        if (isMoving) {
+            return;
+        }
+        isMoving = true;
+        if (!Utils.checkIfNull(mStateStore)) {
+            // at most one row drawer is open
+            mStateStore.onDrawerMoving(this, mBoundId);
+        }
+        // culled children are restored, they are culled again once the drawer rests closed
+        setCullingActive(false);
+        startSnapshot();
+    }
+
+    /**
+     * Method is used to render the content from a snapshot while the drawer moves. A hardware
+     * layer is used when hardware accelerated, the framework keeps the layer up to date if the
+     * content changes. Otherwise the children are drawn into a pooled bitmap on the next draw,
+     * after the invalidations caused by the gesture itself, e.g. a child losing its pressed state
+     */
+    private void startSnapshot() {
+        if (!isSnapshotEnabled || isSnapshotActive || isSnapshotInvalidated ||
+                getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+        isSnapshotActive = true;
+        if (isHardwareAccelerated()) {
+            mRestoreLayerType = getLayerType();
+            setLayerType(LAYER_TYPE_HARDWARE, null);
+        } else {
+            isSnapshotPending = true;
+            invalidate();
+        }
+    }
+
+    /**
+     * Method is used to draw the children once into a pooled bitmap
+     */
+    private void captureSnapshot() {
+        isSnapshotPending = false;
+        mSnapshotBitmap = DrawerBitmapPool.acquire(getWidth(), getHeight());
+        mSnapshotBitmap.eraseColor(Color.TRANSPARENT);
+        mSnapshotCanvas.setBitmap(mSnapshotBitmap);
+        super.dispatchDraw(mSnapshotCanvas);
+        mSnapshotCanvas.setBitmap(null);
+    }
+
+    /**
+     * Method is used to restore live rendering, e.g. when the drawer rests
+     */
+    private void stopSnapshot() {
+        isSnapshotInvalidated = false;
+        if (!isSnapshotActive) {
+            return;
+        }
+        isSnapshotActive = false;
+        isSnapshotPending = false;
+        if (isHardwareAccelerated()) {
+            setLayerType(mRestoreLayerType, null);
+        } else if (!Utils.checkIfNull(mSnapshotBitmap)) {
+            DrawerBitmapPool.release(mSnapshotBitmap);
+            mSnapshotBitmap = null;
+        }
+        invalidate();
+    }
+
+    /**
+     * Method is used to fall back to live rendering when the content changes while it is
+     * rendered from a bitmap snapshot. No new snapshot is taken until the drawer rests
+     */
+    private void invalidateSnapshot() {
+        if (isSnapshotActive && !Utils.checkIfNull(mSnapshotBitmap)) {
+            stopSnapshot();
+            isSnapshotInvalidated = true;
+        }
+    }
+
+    /**
+     * Method is used to check if the drawer rests on its closed position
+     *
+     * @return True if the drawer is closed and neither animating nor dragged, otherwise false
+     */
+    private boolean isRestingClosed() {
+        return !isAnimating && mAnchorIndex == 0 && mAxis.getPosition(this) == mAnchors.getPosition(0);
+    }
+
+    /**
+     * Method is used to start or stop culling children outside the part of the drawer that
+     * sticks out when closed. The drawer is invalidated so that its display list is recorded
+     * again with the new set of children
+     *
+     * @param isActive True to cull children, only applied if a culling mode is set
+     */
+    private void setCullingActive(boolean isActive) {
+        isActive &= mCullingMode != CullingMode.CULLING_MODE_NONE;
+        if (isCullingActive == isActive) {
+            return;
+        }
+        isCullingActive = isActive;
+        if (isActive) {
+            mAxis.getOffsetRegion(getWidth(), getHeight(), mOffsetHeight, mCullRect);
+            if (mCullingMode == CullingMode.CULLING_MODE_LAYOUT) {
+                hideCulledChildren();
+            }
+        } else {
+            restoreCulledChildren();
+        }
+        invalidate();
+    }
+
+    /**
+     * Method is used to hide visible children outside the part of the drawer that sticks out when
+     * closed. INVISIBLE does not request a layout pass, neither here nor when the children are
+     * restored on the first frame of a drag
+     */
+    private void hideCulledChildren() {
+        for (int i = 0; i < getChildCount(); i++) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() == VISIBLE && !isInCullRect(child)) {
+                child.setVisibility(INVISIBLE);
+                mCulledChildren.add(child);
+            }
+        }
+    }
+
+    /**
+     * Method is used to make hidden children visible again. Children that were removed, or whose
+     * visibility was changed by the app while hidden, are left as they are
+     */
+    private void restoreCulledChildren() {
+        for (int i = 0; i < mCulledChildren.size(); i++) {
+            final View child = mCulledChildren.get(i);
+            if (child.getParent() == this && child.getVisibility() == INVISIBLE) {
+                child.setVisibility(VISIBLE);
+            }
+        }
+        mCulledChildren.clear();
+    }
+
+    /**
+     * Method is used to check if a child overlaps the part of the drawer that sticks out when closed
+     *
+     * @param child The child of the drawer
+     * @return True if the child overlaps the cull rect, otherwise false
+     */
+    private boolean isInCullRect(@NonNull View child) {
+        final float x = child.getX();
+        final float y = child.getY();
+        return x < mCullRect.right && x + child.getWidth() > mCullRect.left &&
+                y < mCullRect.bottom && y + child.getHeight() > mCullRect.top;
+    }
+
+    /**
+     * Method is used to start inflating the content layout right away, if it is still waiting
+     * for the main looper to be idle
+     */
+    private void prefetchContent() {
+        if (!Utils.checkIfNull(mContentLoader)) {
+            mContentLoader.prefetch();
+        }
+    }
+
+    /**
+     * Method is used to notify that the content layout replaced its placeholder
+     *
+     * @param content The inflated content
+     */
+    void notifyContentInflated(@NonNull View content) {
+        if (!Utils.checkIfNull(mOnContentInflatedListener)) {
+            mOnContentInflatedListener.onContentInflated(content);
+        }
+    }
+
+    /**
+     * Method is used to add a movement to the velocity tracker in screen coordinates. The drawer
+     * moves under the finger while dragged, therefore view coordinates would not reflect the
+     * velocity of the finger. The event is offset in place and restored to avoid a copy
+     *
+     * @param event The motion event
+     */
+    private void addVelocityMovement(@NonNull MotionEvent event) {
+        final float offsetX = event.getRawX() - event.getX();
+        final float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        mVelocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+
+    /**
+     * Method is used to extrapolate the finger coordinate by the prediction horizon. The batched
+     * historical samples of the event are added to the predictor to evaluate earlier predictions
+     *
+     * @param event The move event, already added to the velocity tracker
+     * @return The predicted raw coordinate along the axis
+     */
+    private float predictTouchCoordinate(@NonNull MotionEvent event) {
+        final float rawCoordinate = mAxis.getRawCoordinate(event);
+        // the drawer does not move within one event, therefore all samples share the raw offset
+        final float rawOffset = rawCoordinate - mAxis.getCoordinate(event);
+        final int historySize = event.getHistorySize();
+        for (int i = 0; i < historySize; i++) {
+            mTouchPredictor.addSample(event.getHistoricalEventTime(i),
+                    mAxis.getHistoricalCoordinate(event, i) + rawOffset);
+        }
+        mTouchPredictor.addSample(event.getEventTime(), rawCoordinate);
+
+        mVelocityTracker.computeCurrentVelocity(1000, mGeometry.getMaximumVelocity());
+        return mTouchPredictor.predict(event.getEventTime(), rawCoordinate, mAxis.getVelocity(mVelocityTracker));
+    }
+
+    /**
+     * Method is used to apply a drag position that is waiting for the next frame
+     */
+    private void flushDragPosition() {
+        if (isDragFramePending) {
+            isDragFramePending = false;
+            Choreographer.getInstance().removeFrameCallback(mDragFrameCallback);
+            mAxis.setPosition(this, mPendingDragPosition);
+        }
+    }
+
+    /**
+     * Method is used to obtain the velocity tracker if it is not yet available
+     */
+    private void obtainVelocityTracker() {
+        if (Utils.checkIfNull(mVelocityTracker)) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+    }
+
+    /**
+     * Method is used to update params based on gravity in order to position stickyTo
+     *
+     * @param stateToApply The drawer architecture has multiple states e.g.
+     *                     LOCK_MODE_OPEN, LOCK_MODE_CLOSED
+     * @param notify       True to log the animation progress of the drawer, otherwise false
+     */
+    public void notifyActionForState(LockMode stateToApply, boolean notify) {
+        if (Utils.checkIfNull(stateToApply)) {
+            stateToApply = mLockMode;
+        }
+        notifyActionForAnchor(getAnchorIndexForState(stateToApply), notify);
+    }
+
+    /**
+     * Method is used to position the drawer on an anchor
+     *
+     * @param anchorIndex The index of the anchor to position the drawer on
+     * @param notify      True to log the animation progress of the drawer, otherwise false
+     */
+    private void notifyActionForAnchor(int anchorIndex, boolean notify) {
+        mAxis.setPosition(this, mAnchors.getPosition(anchorIndex));
+        mAnchorIndex = anchorIndex;
+        isMoving = false;
+        // the drawer rests, render the content live again
+        stopSnapshot();
+        if (!Utils.checkIfNull(mStateStore)) {
+            mStateStore.onDrawerSettled(this, mBoundId, anchorIndex);
+        }
+        // only the part that sticks out is visible while closed
+        setCullingActive(anchorIndex == 0);
+        // report the resting offset before the idle state
+        dispatchSlideOffset();
+        setSlideState(SLIDE_STATE_IDLE);
+        mCommandQueue.onSettled(getLockModeForAnchor(anchorIndex));
+        if (notify) {
+            notifyActionFinished(getLockModeForAnchor(anchorIndex));
+            if (!Utils.checkIfNull(mOnAnchorListener)) {
+                mOnAnchorListener.onAnchorReached(anchorIndex);
+            }
+        }
+    }
+
+    /**
+     * Method is used to report the slide offset if it changed since it was last reported
+     */
+    private void dispatchSlideOffset() {
+        if (Utils.checkIfNull(mOnSlideListener)) {
+            return;
+        }
+        final float offset = getSlideOffset();
+        if (offset != mLastSlideOffset) {
+            mLastSlideOffset = offset;
+            mOnSlideListener.onDrawerSlide(offset);
+        }
+    }
+
+    /**
+     * Method is used to report a change in the slide state
+     *
+     * @param state The slide state, e.g. {@link #SLIDE_STATE_DRAGGING}
+     */
+    private void setSlideState(int state) {
+        if (mSlideState == state) {
+            return;
+        }
+        mSlideState = state;
+        if (!Utils.checkIfNull(mOnSlideListener)) {
+            mOnSlideListener.onDrawerStateChanged(state);
+        }
+    }
+
+    /**
+     * Method is used to notify a change in the lock state of the drawer
+     *
+     * @param stateToApply The drawer architecture has multiple states e.g.
+     *                     LOCK_MODE_OPEN, LOCK_MODE_CLOSED
+     */
+    private void notifyActionFinished(@NonNull LockMode stateToApply) {
+
+        switch (stateToApply) {
+            case LOCK_MODE_OPEN:
+                mLockMode = LockMode.LOCK_MODE_OPEN;
+                if (!Utils.checkIfNull(mOnInteractListener)) {
+                    mOnInteractListener.onDrawerOpened();
+                }
+                mListenerRegistry.notifyOpened();
+                break;
+            case LOCK_MODE_CLOSED:
+                mLockMode = LockMode.LOCK_MODE_CLOSED;
+                if (!Utils.checkIfNull(mOnInteractListener)) {
+                    mOnInteractListener.onDrawerClosed();
+                }
+                mListenerRegistry.notifyClosed();
+                break;
+            case LOCK_MODE_ANCHORED:
+                // intermediate anchors are reported through OnAnchorListener
+                mLockMode = LockMode.LOCK_MODE_ANCHORED;
+                break;
+        }
+    }
+
+    /**
+     * Method is used to get the anchor index for a lock mode
+     *
+     * @param lockMode The drawer architecture has multiple states e.g.
+     *                 LOCK_MODE_OPEN, LOCK_MODE_CLOSED, LOCK_MODE_ANCHORED
+     * @return The anchor index for the lock mode. LOCK_MODE_ANCHORED keeps the current
+     * intermediate anchor, or uses the first intermediate anchor
+     */
+    private int getAnchorIndexForState(@NonNull LockMode lockMode) {
+        final int openIndex = mAnchors.getOpenIndex();
+        switch (lockMode) {
+            case LOCK_MODE_OPEN:
+                return openIndex;
+            case LOCK_MODE_ANCHORED:
+                return mAnchorIndex > 0 && mAnchorIndex < openIndex ? mAnchorIndex : Math.min(1, openIndex);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Method is used to get the lock mode for an anchor index
+     *
+     * @param anchorIndex The anchor index
+     * @return The lock mode for the anchor index
+     */
+    private LockMode getLockModeForAnchor(int anchorIndex) {
+        if (anchorIndex == 0) {
+            return LockMode.LOCK_MODE_CLOSED;
+        } else if (anchorIndex == mAnchors.getOpenIndex()) {
+            return LockMode.LOCK_MODE_OPEN;
+        }
+        return LockMode.LOCK_MODE_ANCHORED;
+    }
+
+    /**
+     * Method is used to rebuild the geometry snapshot and the anchor positions derived from it
+     */
+    private void updateGeometry() {
+        mGeometry = DrawerGeometry.create(this, mAxis, mOffsetHeight, mInsets);
+        updateAnchorPositions();
+        if (isCullingActive) {
+            mAxis.getOffsetRegion(getWidth(), getHeight(), mOffsetHeight, mCullRect);
+        }
+    }
+
+    /**
+     * Method is used to resolve the offset from the offset fraction and the drawer length
+     */
+    private void resolveOffsetFraction() {
+        if (mOffsetFraction < 0) {
+            return;
+        }
+        int offset = Math.round(mOffsetFraction * mAxis.getLength(this));
+        if (mMaxOffset >= 0) {
+            offset = Math.min(offset, mMaxOffset);
+        }
+        mOffsetHeight = Math.max(offset, mMinOffset);
+    }
+
+    /**
+     * Method is used to keep a resting drawer on its anchor when the anchor positions change.
+     * Before the first layout the drawer is positioned in onLayout
+     */
+    private void repositionOnAnchor() {
+        if (!isDrawerInitialized && !isAnimating) {
+            notifyActionForAnchor(mAnchorIndex, false);
+        }
+    }
+
+    /**
+     * Method is used to precompute the anchor positions for the current geometry
+     */
+    private void updateAnchorPositions() {
+        mAnchors.updatePositions(mGeometry.getClosedPosition(), mGeometry.getOpenPosition());
+    }
+
+    /**
+     * Check if drawer is opened
+     *
+     * @return True if drawer is opened, otherwise false
+     */
+    public boolean isOpened() {
+        return mLockMode == LockMode.LOCK_MODE_OPEN;
+    }
+
+    /**
+     * Check if drawer is closed
+     *
+     * @return True if drawer is closed, otherwise false
+     */
+    public boolean isClosed() {
+        return mLockMode == LockMode.LOCK_MODE_CLOSED;
+    }
+
+    /**
+     * Method is used to open drawer
+     */
+    @SuppressWarnings("unused")
+    public void openDrawer() {
+        notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, !isOpened());
+    }
+
+    /**
+     * Method is used to close drawer
+     */
+    @SuppressWarnings("unused")
+    public void closeDrawer() {
+        notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, !isClosed());
+    }
+
+    /**
+     * Method is used to request a lock mode. Unlike {@link #openDrawer()} and
+     * {@link #closeDrawer()}, requests may be made from any thread. Requests are coalesced, only
+     * the latest request is animated on the next frame, and a drawer that is already settling
+     * towards the requested state is not restarted
+     *
+     * @param stateToApply The drawer architecture has multiple states e.g.
+     *                     LOCK_MODE_OPEN, LOCK_MODE_CLOSED
+     * @return Handle that completes when the drawer rests in the requested state, or is
+     * cancelled when a later request or a user gesture moves the drawer elsewhere. Completion
+     * can be awaited from a background thread, or observed on the main thread with
+     * {@link DrawerCommand#setOnCommandFinishedListener}
+     */
+    @AnyThread
+    @NonNull
+    @SuppressWarnings("unused")
+    public DrawerCommand requestLockMode(@NonNull LockMode stateToApply) {
+        return mCommandQueue.request(stateToApply);
+    }
+
+    /**
+     * Method is used to apply a coalesced lock mode request
+     *
+     * @param stateToApply The requested lock mode
+     */
+    void applyCommand(@NonNull LockMode stateToApply) {
+        final int anchorIndex = getAnchorIndexForState(stateToApply);
+        if (isAnimating && mSettleAnchorIndex == anchorIndex) {
+            // already heading there, completes when the animation settles
+            return;
+        }
+        if (!isAnimating && mAnchorIndex == anchorIndex &&
+                mAxis.getPosition(this) == mAnchors.getPosition(anchorIndex)) {
+            // already resting in the requested state
+            mCommandQueue.onSettled(stateToApply);
+            return;
+        }
+        animateToAnchor(anchorIndex, anchorIndex != mAnchorIndex, 0);
+    }
+
+    /**
+     * Method is used to set the offset height for the sliding drawer. This is the how much you
+     * want the drawer to stick out. Replaces an offset fraction
+     *
+     * @param offsetHeight The height to which you want the drawer to stick out
+     */
+    public void setOffsetHeight(int offsetHeight) {
+        mOffsetFraction = -1f;
+        mOffsetHeight = offsetHeight;
+        updateGeometry();
+        repositionOnAnchor();
+    }
+
+    /**
+     * Method is used to set the offset as a fraction of the drawer length. The offset is resolved
+     * by the drawer whenever its size changes, therefore no layout listener is needed
+     *
+     * @param offsetFraction The fraction of the drawer height, or width for left and right
+     *                       drawers, that sticks out when closed
+     */
+    @SuppressWarnings("unused")
+    public void setOffsetFraction(float offsetFraction) {
+        mOffsetFraction = Math.max(0f, Math.min(1f, offsetFraction));
+        resolveOffsetFraction();
+        updateGeometry();
+        repositionOnAnchor();
+    }
+
+    /**
+     * Method is used to set the bounds for the offset resolved from the offset fraction
+     *
+     * @param minOffset The minimum offset in pixels
+     * @param maxOffset The maximum offset in pixels, negative if unbounded
+     */
+    @SuppressWarnings("unused")
+    public void setOffsetBounds(int minOffset, int maxOffset) {
+        mMinOffset = minOffset;
+        mMaxOffset = maxOffset;
+        if (mOffsetFraction >= 0) {
+            resolveOffsetFraction();
+            updateGeometry();
+            repositionOnAnchor();
+        }
+    }
+
+    /**
+     * Method is used to set the anchor points of the drawer, e.g. peek, half and full. Closed and
+     * fully opened are always anchors, intermediate anchors are reported as LOCK_MODE_ANCHORED
+     *
+     * @param anchorPoints Fractions of the open distance, where 0 is closed and 1 is fully opened
+     */
+    @SuppressWarnings("unused")
+    public void setAnchorPoints(@Nullable float... anchorPoints) {
+        mAnchors.setFractions(anchorPoints);
+        updateAnchorPositions();
+        // keep resting on the closest anchor
+        mAnchorIndex = Math.min(getAnchorIndexForState(mLockMode), mAnchors.getOpenIndex());
+        mLockMode = getLockModeForAnchor(mAnchorIndex);
+        if (!isAnimating) {
+            notifyActionForAnchor(mAnchorIndex, false);
+        }
+    }
+
+    /**
+     * Method is used to get the number of anchors
+     *
+     * @return The number of anchors, including closed and fully opened
+     */
+    @SuppressWarnings("unused")
+    public int getAnchorCount() {
+        return mAnchors.size();
+    }
+
+    /**
+     * Method is used to get the anchor the drawer is resting on
+     *
+     * @return The anchor index, where 0 is closed and {@link #getAnchorCount()} - 1 is opened
+     */
+    @SuppressWarnings("unused")
+    public int getAnchorIndex() {
+        return mAnchorIndex;
+    }
+
+    /**
+     * Method is used to animate the drawer to an anchor
+     *
+     * @param anchorIndex The anchor index, where 0 is closed and {@link #getAnchorCount()} - 1
+     *                    is opened
+     */
+    @SuppressWarnings("unused")
+    public void openDrawerToAnchor(int anchorIndex) {
+        if (anchorIndex < 0 || anchorIndex >= mAnchors.size()) {
+            throw new IndexOutOfBoundsException("Invalid anchor index " + anchorIndex);
+        }
+        animateToAnchor(anchorIndex, anchorIndex != mAnchorIndex, 0);
+    }
+
+    /**
+     * Sets the listener to be invoked when the drawer settles on an anchor
+     * {@link OnAnchorListener}.
+     *
+     * @param listener Callback for when the drawer reaches an anchor
+     */
+    @SuppressWarnings("unused")
+    public void setOnAnchorListener(OnAnchorListener listener) {
+        mOnAnchorListener = listener;
+    }
+
+    /**
+     * Method is used to set the settle mode, e.g. FIXED or FLING
+     *
+     * @param settleMode The settle mode used when the drawer is released or toggled
+     */
+    @SuppressWarnings("unused")
+    public void setSettleMode(@NonNull SettleMode settleMode) {
+        mSettleMode = settleMode;
+    }
+
+    /**
+     * Method is used to get the settle mode
+     *
+     * @return The settle mode used when the drawer is released or toggled
+     */
+    @SuppressWarnings("unused")
+    public SettleMode getSettleMode() {
+        return mSettleMode;
+    }
+
+    /**
+     * Method is used to enable/disable drag coalescing. When enabled, move events only record
+     * the latest drag position and the drawer is moved once per frame, which avoids several
+     * property updates and invalidations per frame on high rate touch screens. The velocity
+     * tracker still receives every move event, including its historical samples
+     *
+     * @param isDragCoalesced True to move the drawer once per frame, otherwise false
+     */
+    @SuppressWarnings("unused")
+    public void setDragCoalescingEnabled(boolean isDragCoalesced) {
+        if (!isDragCoalesced) {
+            flushDragPosition();
+        }
+        this.isDragCoalesced = isDragCoalesced;
+    }
+
+    /**
+     * Method is used to check if drag coalescing is enabled
+     *
+     * @return True if the drawer is moved once per frame while dragged, otherwise false
+     */
+    @SuppressWarnings("unused")
+    public boolean isDragCoalescingEnabled() {
+        return isDragCoalesced;
+    }
+
+    /**
+     * Method is used to get the number of drawer settle animations currently running in the
+     * process. All of them are advanced from a single frame callback
+     *
+     * @return The number of running settle animations
+     */
+    @SuppressWarnings("unused")
+    public static int getActiveAnimationCount() {
+        return DrawerAnimationDriver.getInstance().getActiveCount();
+    }
+
+    /**
+     * Method is used to bind the drawer to a row of a RecyclerView, e.g. in onBindViewHolder.
+     * In-flight gestures and animations of the previous row are cancelled and the drawer is
+     * positioned on the anchor stored for the row without animation. Opening the drawer closes
+     * the drawer of any other row bound to the same store. Binding does not allocate
+     *
+     * @param id    The stable id of the row, e.g. from {@link RecyclerView.Adapter#getItemId(int)}
+     * @param store The open state store shared by all rows of the list
+     */
+    @SuppressWarnings("unused")
+    public void bind(long id, @NonNull DrawerStateStore store) {
+        mBoundId = id;
+        mStateStore = store;
+        resetToAnchor(store.getAnchorIndex(id));
+    }
+
+    /**
+     * Method is used to reset the drawer, e.g. when its ViewHolder is recycled. In-flight
+     * gestures and animations are cancelled and the drawer is positioned without animation and
+     * without notifying listeners
      *
      * @param stateToApply The drawer architecture has multiple states e.g.
      *                     LOCK_MODE_OPEN, LOCK_MODE_CLOSED
      */
-    private void notifyActionFinished(@NonNull LockMode stateToApply) {
+    @SuppressWarnings("unused")
+    public void reset(@NonNull LockMode stateToApply) {
+        resetToAnchor(getAnchorIndexForState(stateToApply));
+    }
 
-        switch (stateToApply) {
-            case LOCK_MODE_OPEN:
-                mLockMode = LockMode.LOCK_MODE_OPEN;
-                if (!Utils.checkIfNull(mOnInteractListener)) {
-                    mOnInteractListener.onDrawerOpened();
-                }
-                break;
-            case LOCK_MODE_CLOSED:
-                mLockMode = LockMode.LOCK_MODE_CLOSED;
-                if (!Utils.checkIfNull(mOnInteractListener)) {
-                    mOnInteractListener.onDrawerClosed();
-                }
-                break;
+    /**
+     * Method is used to get the stable id of the row the drawer is bound to
+     *
+     * @return The stable id, or {@link DrawerStateStore#NO_ID} if the drawer is not bound
+     */
+    long getBoundId() {
+        return mBoundId;
+    }
+
+    /**
+     * Method is used to cancel all gesture and animation state and position the drawer on an
+     * anchor without animation
+     *
+     * @param anchorIndex The index of the anchor to position the drawer on
+     */
+    private void resetToAnchor(int anchorIndex) {
+        // cancel the frame monitor first, a cancelled gesture is not reported
+        if (!Utils.checkIfNull(mFrameMonitor)) {
+            mFrameMonitor.cancel();
+        }
+        cancelSettleAnimation();
+        if (isDragFramePending) {
+            isDragFramePending = false;
+            Choreographer.getInstance().removeFrameCallback(mDragFrameCallback);
         }
+        if (!Utils.checkIfNull(mVelocityTracker)) {
+            mVelocityTracker.clear();
+        }
+        mTouchPredictor.reset();
+        isSettleInterrupted = false;
+        isScrollableViewDragging = false;
+        isNestedScrollDragged = false;
+        mNestedFlingVelocity = 0;
+
+        mAnchorIndex = Math.max(0, Math.min(anchorIndex, mAnchors.getOpenIndex()));
+        mLockMode = getLockModeForAnchor(mAnchorIndex);
+        notifyActionForAnchor(mAnchorIndex, false);
     }
 
     /**
-     * Check if drawer is opened
+     * Method is used to set the culling mode, e.g. NONE, DRAW or LAYOUT. While the drawer rests
+     * closed only the part that sticks out is visible: CULLING_MODE_DRAW skips drawing children
+     * that are fully outside of it, CULLING_MODE_LAYOUT also hides them with INVISIBLE until the
+     * drawer starts moving, so that they are skipped by touch and accessibility as well. Hidden
+     * children are still measured and laid out, therefore hiding and restoring them never
+     * requests a layout pass. Visibility set by the app while children are hidden is kept
      *
-     * @return True if drawer is opened, otherwise false
+     * @param cullingMode The culling mode used while the drawer rests closed
      */
-    public boolean isOpened() {
-        return mLockMode == LockMode.LOCK_MODE_OPEN;
+    @SuppressWarnings("unused")
+    public void setCullingMode(@NonNull CullingMode cullingMode) {
+        setCullingActive(false);
+        mCullingMode = cullingMode;
+        setCullingActive(isRestingClosed());
     }
 
     /**
-     * Check if drawer is closed
+     * Method is used to get the culling mode
      *
-     * @return True if drawer is closed, otherwise false
+     * @return The culling mode used while the drawer rests closed
      */
-    public boolean isClosed() {
-        return mLockMode == LockMode.LOCK_MODE_CLOSED;
+    @SuppressWarnings("unused")
+    public CullingMode getCullingMode() {
+        return mCullingMode;
     }
 
     /**
-     * Method is used to open drawer
+     * Method is used to enable/disable snapshot rendering. When enabled, the content is rendered
+     * from a snapshot while the drawer is dragged or settles: a hardware layer when hardware
+     * accelerated, otherwise a bitmap taken from a shared pool. Live rendering is restored when
+     * the drawer rests, and a bitmap snapshot falls back to live rendering as soon as the content
+     * is invalidated during the motion. Useful for complex content such as maps, charts or long
+     * lists
+     *
+     * @param isSnapshotEnabled True to render a snapshot while the drawer moves, otherwise false
      */
     @SuppressWarnings("unused")
-    public void openDrawer() {
-        notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, !isOpened());
+    public void setSnapshotRenderingEnabled(boolean isSnapshotEnabled) {
+        if (!isSnapshotEnabled) {
+            stopSnapshot();
+        }
+        this.isSnapshotEnabled = isSnapshotEnabled;
     }
 
     /**
-     * Method is used to close drawer
+     * Method is used to check if snapshot rendering is enabled
+     *
+     * @return True if the content is rendered from a snapshot while the drawer moves, otherwise false
      */
     @SuppressWarnings("unused")
-    public void closeDrawer() {
-        notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, !isClosed());
+    public boolean isSnapshotRenderingEnabled() {
+        return isSnapshotEnabled;
     }
 
     /**
-     * Method is used to get the view height of width
+     * Method is used to set the content layout of the drawer. The content is not inflated right
+     * away: an empty placeholder is added behind the other children, e.g. the peek layout, and
+     * the content is inflated in the background once the main looper is idle, or as soon as the
+     * drawer is dragged or animated. Heavy content therefore does not delay the first frame of
+     * the host activity
      *
-     * @return The view height or width depending upon of view orientation
+     * @param layoutResId The content layout resource, 0 to remove the content
      */
-    private int getLength() {
-        switch (mScrollOrientation) {
-            case VERTICAL:
-                return getHeight();
-            case HORIZONTAL:
-                return getWidth();
+    @SuppressWarnings("unused")
+    public void setContentLayout(@LayoutRes int layoutResId) {
+        if (!Utils.checkIfNull(mContentLoader)) {
+            mContentLoader.release();
+            mContentLoader = null;
+        }
+        mContentLayoutResId = layoutResId;
+        if (layoutResId == 0) {
+            return;
+        }
+
+        mContentLoader = new DrawerContentLoader(this, layoutResId);
+        mContentLoader.addPlaceholder();
+        if (!Utils.checkIfNull(getWindowToken())) {
+            // already attached, otherwise scheduled in onAttachedToWindow
+            mContentLoader.scheduleOnIdle();
         }
-        throw new IllegalStateException("Scroll orientation is not initialized");
     }
 
     /**
-     * Method is used to set the offset height for the sliding drawer. This is the how much you
-     * want the drawer to stick out
+     * Method is used to get the inflated content layout
      *
-     * @param offsetHeight The height to which you want the drawer to stick out
+     * @return The content, or null if no content layout is set or inflation has not finished
      */
-    public void setOffsetHeight(int offsetHeight) {
-        mOffsetHeight = offsetHeight;
+    @Nullable
+    @SuppressWarnings("unused")
+    public View getContentView() {
+        return Utils.checkIfNull(mContentLoader) ? null : mContentLoader.getContent();
+    }
+
+    /**
+     * Sets the listener to be invoked when the content layout is inflated
+     * {@link OnContentInflatedListener}.
+     *
+     * @param listener Callback for when the content layout replaced its placeholder
+     */
+    @SuppressWarnings("unused")
+    public void setOnContentInflatedListener(OnContentInflatedListener listener) {
+        mOnContentInflatedListener = listener;
+    }
+
+    /**
+     * Method is used to set the touch prediction horizon. While dragged, the drawer is moved to
+     * where the finger is expected to be after the horizon, extrapolated from the velocity of the
+     * finger. A horizon close to the touch-to-display latency of the device, e.g. one or two
+     * frames, removes most of the lag behind the finger
+     *
+     * @param horizon The prediction horizon in milliseconds, 0 to disable prediction
+     */
+    @SuppressWarnings("unused")
+    public void setTouchPredictionHorizon(int horizon) {
+        mTouchPredictor.setHorizon(horizon);
+    }
+
+    /**
+     * Method is used to get the touch prediction horizon
+     *
+     * @return The prediction horizon in milliseconds, 0 if prediction is disabled
+     */
+    @SuppressWarnings("unused")
+    public int getTouchPredictionHorizon() {
+        return mTouchPredictor.getHorizon();
+    }
+
+    /**
+     * Method is used to get the accuracy of the touch prediction. Every prediction is compared
+     * with the finger coordinate at its target time
+     *
+     * @return The mean absolute prediction error in pixels since the last reset, 0 if no
+     * prediction was evaluated
+     */
+    @SuppressWarnings("unused")
+    public float getTouchPredictionError() {
+        return mTouchPredictor.getMeanError();
+    }
+
+    /**
+     * Method is used to reset the accumulated touch prediction error, e.g. after changing the
+     * prediction horizon
+     */
+    @SuppressWarnings("unused")
+    public void resetTouchPredictionError() {
+        mTouchPredictor.resetError();
     }
 
     /**
@@ -555,56 +2026,326 @@ public class CustomDrawerLayout extends FrameLayout {
     }
 
     /**
-     * Method is used to setScrollableView. The scrollableView will disable global touch events
-     * by default to pass touch events to the passed in recyclerView
+     * Method is used to record the motion events dispatched to the drawer, e.g. to reproduce a
+     * field report. Recording is off by default
+     *
+     * @param recorder The recorder to append the events to, or null to stop recording
+     */
+    @SuppressWarnings("unused")
+    public void setGestureRecorder(@Nullable DrawerGestureRecorder recorder) {
+        mGestureRecorder = recorder;
+    }
+
+    /**
+     * Method is used to replace the time source, e.g. by a replay harness
+     *
+     * @param clock The time source, in the {@link System#nanoTime()} time base
+     */
+    @VisibleForTesting
+    void setClock(@NonNull DrawerClock clock) {
+        mClock = clock;
+    }
+
+    /**
+     * Method is used to get the classification of the last released touch gesture
+     *
+     * @return The classification, e.g. {@link #GESTURE_DRAG}
+     */
+    @VisibleForTesting
+    int getLastGesture() {
+        return mLastGesture;
+    }
+
+    /**
+     * Method is used to set the drag handle. Once a drag handle or edge zone is set, the drawer
+     * only handles gestures that go down inside them, other touches go straight to the children
+     *
+     * @param id The id of the descendant view used as drag handle, or 0 to remove the handle
+     */
+    @SuppressWarnings("unused")
+    public void setDragHandle(@IdRes int id) {
+        mDragHandleId = id;
+        isDragHandleRectExplicit = false;
+        updateDragHandleRects();
+    }
+
+    /**
+     * Method is used to set the drag handle as a hit rect, e.g. for a handle that is drawn rather
+     * than a view. Once a drag handle or edge zone is set, the drawer only handles gestures that
+     * go down inside them, other touches go straight to the children
+     *
+     * @param rect The hit rect relative to the drawer, or null to remove the handle
+     */
+    @SuppressWarnings("unused")
+    public void setDragHandleRect(@Nullable Rect rect) {
+        mDragHandleId = 0;
+        isDragHandleRectExplicit = !Utils.checkIfNull(rect);
+        if (isDragHandleRectExplicit) {
+            mDragHandleRect.set(rect);
+        } else {
+            mDragHandleRect.setEmpty();
+        }
+    }
+
+    /**
+     * Method is used to set the edge zone, a strip along the edge of the drawer that faces the
+     * open direction. Gestures that go down inside the edge zone are handled by the drawer even
+     * outside the drag handle
+     *
+     * @param size The size of the edge zone in pixels, or 0 to remove the edge zone
+     */
+    @SuppressWarnings("unused")
+    public void setEdgeZoneSize(int size) {
+        mEdgeZoneSize = Math.max(0, size);
+        updateDragHandleRects();
+    }
+
+    /**
+     * Method is used to update the hit rects of the drag handle view and edge zone
+     */
+    private void updateDragHandleRects() {
+        mEdgeZoneRect.setEmpty();
+        if (mEdgeZoneSize > 0) {
+            mAxis.getOffsetRegion(getWidth(), getHeight(), mEdgeZoneSize, mEdgeZoneRect);
+        }
+        if (isDragHandleRectExplicit) {
+            return;
+        }
+
+        mDragHandleRect.setEmpty();
+        final View handle = mDragHandleId == 0 ? null : findViewById(mDragHandleId);
+        if (Utils.checkIfNull(handle)) {
+            return;
+        }
+        // layout bounds of the handle relative to the drawer
+        int left = handle.getLeft();
+        int top = handle.getTop();
+        ViewParent parent = handle.getParent();
+        while (parent instanceof View && parent != this) {
+            final View view = (View) parent;
+            left += view.getLeft() - view.getScrollX();
+            top += view.getTop() - view.getScrollY();
+            parent = view.getParent();
+        }
+        mDragHandleRect.set(left, top, left + handle.getWidth(), top + handle.getHeight());
+    }
+
+    /**
+     * Method is used to check if the current gesture went down outside the drag handle and edge
+     * zone. The hit test runs once on touch down, touch handling and nested scrolling reuse its
+     * result for the rest of the gesture
+     *
+     * @param event The motion event dispatched to the drawer
+     */
+    private void updateTouchOutsideHandle(@NonNull MotionEvent event) {
+        if (event.getAction() != MotionEvent.ACTION_DOWN) {
+            return;
+        }
+        if (mDragHandleId == 0 && !isDragHandleRectExplicit && mEdgeZoneSize == 0) {
+            isTouchOutsideHandle = false;
+        } else {
+            final int x = (int) event.getX();
+            final int y = (int) event.getY();
+            isTouchOutsideHandle = !mDragHandleRect.contains(x, y) && !mEdgeZoneRect.contains(x, y);
+        }
+    }
+
+    /**
+     * Method is used to setScrollableView, e.g. a ScrollView, ListView, WebView or RecyclerView
+     * with any LayoutManager. While the drawer is fully opened, drags that the scrollableView can
+     * scroll are passed to it. Whether the scrollableView is at its top is only checked when a
+     * drag passes the touch slop, therefore the drawer adds no work to its scroll frames. A
+     * RecyclerView also hands its scroll and fling deltas to the drawer as a nested scrolling
+     * child: scrolling towards the end of the content opens the drawer first, and scrolling back
+     * closes the drawer once the content reached its start
+     *
+     * @param scrollableView The scrollable content of the drawer, may be null to clear
+     */
+    public void setScrollableView(@Nullable View scrollableView) {
+        mScrollableView = scrollableView;
+        if (scrollableView instanceof RecyclerView) {
+            ((RecyclerView) scrollableView).setNestedScrollingEnabled(true);
+        }
+    }
+
+    /**
+     * Method is used to check if the scrollable view should handle the current drag
+     *
+     * @param delta The drag distance along the axis since the down event
+     * @return True if the drawer is fully opened, the drag started on the scrollable view and
+     * the scrollable view can scroll in the drag direction, otherwise false
+     */
+    private boolean canScrollableViewScroll(float delta) {
+        if (Utils.checkIfNull(mScrollableView) || mScrollableView.getVisibility() != VISIBLE ||
+                mAxis.getPosition(this) != mAnchors.getPosition(mAnchors.getOpenIndex()) ||
+                !isInScrollableView(mDownX, mDownY)) {
+            return false;
+        }
+        // the drawer is already fully opened, therefore drags in the opening direction always
+        // scroll the content. Dragging towards the end scrolls the content towards its start
+        return isOpeningDirection(delta) || mAxis.canScroll(mScrollableView, delta > 0 ? -1 : 1);
+    }
+
+    /**
+     * Method is used to check if a point is within the scrollable view
      *
-     * @param recyclerView Flexible view for providing a limited window into a large data set
+     * @param x The x coordinate, relative to the drawer
+     * @param y The y coordinate, relative to the drawer
+     * @return True if the point is within the scrollable view, otherwise false
+     */
+    private boolean isInScrollableView(float x, float y) {
+        float left = 0;
+        float top = 0;
+        View view = mScrollableView;
+        while (view != this) {
+            if (!(view.getParent() instanceof View)) {
+                // scrollable view is not a descendant of the drawer
+                return false;
+            }
+            final View parent = (View) view.getParent();
+            left += view.getX() - parent.getScrollX();
+            top += view.getY() - parent.getScrollY();
+            view = parent;
+        }
+        return x >= left && x < left + mScrollableView.getWidth() &&
+                y >= top && y < top + mScrollableView.getHeight();
+    }
+
+    /**
+     * Reusable settle animation. All drawers share the frame callback of
+     * {@link DrawerAnimationDriver}, which advances the animation once per frame
      */
-    @SuppressLint("ClickableViewAccessibility")
-    public void setScrollableView(@NonNull final RecyclerView recyclerView) {
-        // disable global touch events
-        isGlobalTouchEventDisabled = true;
+    private class SettleAnimation implements DrawerAnimationDriver.Animation {
+
+        @Override
+        public boolean doAnimationFrame(long frameTimeNanos) {
+            if (!isAnimating) {
+                return false;
+            }
+            if (isSettleStartPending) {
+                // frame times are vsync times, a start time taken from the clock is later than the
+                // first frame time and would hold the drawer still on its first frame
+                isSettleStartPending = false;
+                mSettleStartNanos = frameTimeNanos;
+            }
+
+            final float fraction = mSettleDurationNanos > 0 ?
+                    Math.max(0f, Math.min(1f, (frameTimeNanos - mSettleStartNanos) / (float) mSettleDurationNanos)) : 1f;
+            final float interpolated = mSettleInterpolator.getInterpolation(fraction);
+            mAxis.setPosition(CustomDrawerLayout.this, mSettleFrom + (mSettleTo - mSettleFrom) * interpolated);
+            if (fraction < 1f) {
+                return true;
+            }
+            isAnimating = false;
+            stopFrameMonitor();
+            notifyActionForAnchor(mSettleAnchorIndex, isSettleNotify);
+            return false;
+        }
+    }
 
-        // OnScrollListener
-        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+    /**
+     * Saved state of the drawer, restores the lock mode, anchor and offset after a configuration
+     * change or process death. Like any view state, it is only saved if the drawer has an id
+     */
+    static class SavedState extends BaseSavedState {
 
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
             @Override
-            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
-                super.onScrolled(recyclerView, dx, dy);
-                LinearLayoutManager lm = (LinearLayoutManager) recyclerView.getLayoutManager();
-                int pos = lm.findFirstVisibleItemPosition();
-                isFirstVisibleItemPos = lm.findViewByPosition(pos).getTop() == 0 && pos == 0;
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
             }
-        });
 
-        // OnTouchListener
-        recyclerView.setOnTouchListener(new OnTouchListener() {
             @Override
-            public boolean onTouch(View v, @NonNull MotionEvent event) {
-                if (mLockMode == LockMode.LOCK_MODE_OPEN) {
-                    if (isFirstVisibleItemPos && event.getAction() == MotionEvent.ACTION_UP) {
-                        notifyActionAndAnimateForState(LockMode.LOCK_MODE_CLOSED, true);
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } else {
-                    if (event.getAction() == MotionEvent.ACTION_UP) {
-                        notifyActionAndAnimateForState(LockMode.LOCK_MODE_OPEN, true);
-                    }
-                    return false;
-                }
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
             }
-        });
+        };
+
+        int mLockMode;
+        int mAnchorIndex;
+        int mOffsetHeight;
+        float mOffsetFraction;
+
+        /**
+         * Constructor
+         *
+         * @param superState The state of the superclass
+         */
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param in The parcel to read the state from
+         */
+        SavedState(Parcel in) {
+            super(in);
+            mLockMode = in.readInt();
+            mAnchorIndex = in.readInt();
+            mOffsetHeight = in.readInt();
+            mOffsetFraction = in.readFloat();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(mLockMode);
+            out.writeInt(mAnchorIndex);
+            out.writeInt(mOffsetHeight);
+            out.writeFloat(mOffsetFraction);
+        }
+    }
+
+    /**
+     * Reports the slide offset once per frame. Drag and settle may move the drawer several
+     * times before a frame is drawn, only the latest offset is reported
+     */
+    private class SlidePreDrawListener implements ViewTreeObserver.OnPreDrawListener {
+
+        @Override
+        public boolean onPreDraw() {
+            dispatchSlideOffset();
+            return true;
+        }
+    }
 
+    /**
+     * Reusable frame callback that applies the latest drag position once per frame
+     */
+    private class DragFrameCallback implements Choreographer.FrameCallback {
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (isDragFramePending) {
+                isDragFramePending = false;
+                mAxis.setPosition(CustomDrawerLayout.this, mPendingDragPosition);
+            }
+        }
     }
 
     // enums
     public enum LockMode {
-        LOCK_MODE_OPEN, LOCK_MODE_CLOSED
+        LOCK_MODE_OPEN, LOCK_MODE_CLOSED, LOCK_MODE_ANCHORED
+    }
+
+    /**
+     * Settle animation modes. SETTLE_MODE_FIXED always animates with a fixed duration,
+     * SETTLE_MODE_FLING derives the duration from the release velocity and the distance left
+     * to travel. Enum order matches the settleMode values in attrs.xml
+     */
+    public enum SettleMode {
+        SETTLE_MODE_FIXED, SETTLE_MODE_FLING
     }
 
-    private enum ScrollState {VERTICAL, HORIZONTAL}
+    /**
+     * Culling modes for children outside the part of the drawer that sticks out while the drawer
+     * rests closed. Enum order matches the cullingMode values in attrs.xml
+     */
+    public enum CullingMode {
+        CULLING_MODE_NONE, CULLING_MODE_DRAW, CULLING_MODE_LAYOUT
+    }
 
     @SuppressWarnings("unused")
     public interface OnInteractListener {
@@ -613,4 +2354,50 @@ public class CustomDrawerLayout extends FrameLayout {
         void onDrawerClosed();
     }
 
+    public interface OnAnchorListener {
+        /**
+         * Called when the drawer settles on an anchor
+         *
+         * @param anchorIndex The anchor index, where 0 is closed and the last index is opened
+         */
+        void onAnchorReached(int anchorIndex);
+    }
+
+    public interface OnSlideListener {
+        /**
+         * Called at most once per frame while the drawer moves, and once more when it settles
+         *
+         * @param offset The slide offset, where 0 is closed and 1 is fully opened
+         */
+        void onDrawerSlide(float offset);
+
+        /**
+         * Called when the drawer starts being dragged, starts settling or comes to rest
+         *
+         * @param state The slide state, one of {@link CustomDrawerLayout#SLIDE_STATE_IDLE},
+         *              {@link CustomDrawerLayout#SLIDE_STATE_DRAGGING} or
+         *              {@link CustomDrawerLayout#SLIDE_STATE_SETTLING}
+         */
+        void onDrawerStateChanged(int state);
+    }
+
+    public interface OnContentInflatedListener {
+        /**
+         * Called on the main thread when the content layout replaced its placeholder
+         *
+         * @param content The inflated content
+         */
+        void onContentInflated(@NonNull View content);
+    }
+
+    public interface DrawerPerformanceListener {
+        /**
+         * Called when a drag gesture or settle animation ends. The stats instance is reused,
+         * therefore it is only valid during this call
+         *
+         * @param stats The frame timing of the phase
+         */
+        void onFrameStats(@NonNull DrawerFrameStats stats);
+    }
+
 }
@@ -0,0 +1,166 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.Nullable;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Sorted table of anchor points for {@link CustomDrawerLayout}. Anchors are stored as fractions
+ * of the open distance, where 0 is closed and 1 is fully open. Pixel positions are precomputed
+ * whenever the size of the drawer changes, therefore anchor selection on release is a binary
+ * search that does not allocate
+ */
+final class DrawerAnchors {
+
+    /**
+     * Closed and open anchors, always part of the table
+     */
+    private static final float FRACTION_CLOSED = 0f;
+    private static final float FRACTION_OPEN = 1f;
+
+    // anchor fractions, sorted ascending
+    private float[] mFractions;
+    // anchor positions in pixels, index matches mFractions
+    private float[] mPositions;
+    // positions of the closed and open anchors
+    private float mClosedPosition, mOpenPosition;
+
+    /**
+     * Constructor
+     */
+    DrawerAnchors() {
+        setFractions(null);
+    }
+
+    /**
+     * Method is used to set the anchor fractions. Values are clamped to [0, 1], sorted and
+     * de-duplicated. The closed and open anchors are always added
+     *
+     * @param fractions Anchor fractions of the open distance, may be null for closed and open only
+     */
+    void setFractions(@Nullable float[] fractions) {
+        final int count = Utils.checkIfNull(fractions) ? 0 : fractions.length;
+        final float[] sorted = new float[count + 2];
+        sorted[0] = FRACTION_CLOSED;
+        sorted[1] = FRACTION_OPEN;
+        for (int i = 0; i < count; i++) {
+            sorted[i + 2] = Math.max(FRACTION_CLOSED, Math.min(FRACTION_OPEN, fractions[i]));
+        }
+        Arrays.sort(sorted);
+
+        // remove duplicates
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        mFractions = Arrays.copyOf(sorted, size);
+        mPositions = new float[size];
+        updatePositions(mClosedPosition, mOpenPosition);
+    }
+
+    /**
+     * Method is used to precompute the anchor positions, must be called when the size or offset
+     * of the drawer changes
+     *
+     * @param closedPosition The position of the drawer when closed
+     * @param openPosition   The position of the drawer when fully opened
+     */
+    void updatePositions(float closedPosition, float openPosition) {
+        mClosedPosition = closedPosition;
+        mOpenPosition = openPosition;
+        for (int i = 0; i < mFractions.length; i++) {
+            mPositions[i] = closedPosition + (openPosition - closedPosition) * mFractions[i];
+        }
+    }
+
+    /**
+     * @return The number of anchors, including the closed and open anchors
+     */
+    int size() {
+        return mFractions.length;
+    }
+
+    /**
+     * @return The index of the fully opened anchor
+     */
+    int getOpenIndex() {
+        return mFractions.length - 1;
+    }
+
+    /**
+     * @param index The anchor index
+     * @return The precomputed position of the anchor in pixels
+     */
+    float getPosition(int index) {
+        return mPositions[index];
+    }
+
+    /**
+     * @param index The anchor index
+     * @return The fraction of the open distance of the anchor
+     */
+    float getFraction(int index) {
+        return mFractions[index];
+    }
+
+    /**
+     * Method is used to find the anchor nearest to a position
+     *
+     * @param position The position of the drawer in pixels
+     * @return The index of the nearest anchor
+     */
+    int findNearestIndex(float position) {
+        final float fraction = toFraction(position);
+        final int index = Arrays.binarySearch(mFractions, fraction);
+        if (index >= 0) {
+            return index;
+        }
+
+        final int insertion = -index - 1;
+        if (insertion == 0) {
+            return 0;
+        } else if (insertion == mFractions.length) {
+            return mFractions.length - 1;
+        }
+        return fraction - mFractions[insertion - 1] <= mFractions[insertion] - fraction ?
+                insertion - 1 : insertion;
+    }
+
+    /**
+     * Method is used to find the anchor to settle to on release. A fling moves the drawer to the
+     * next anchor in the direction of the fling, otherwise the nearest anchor is used
+     *
+     * @param position        The position of the drawer in pixels
+     * @param velocity        The release velocity in pixels per second, along the drawer axis
+     * @param minimumVelocity The minimum velocity in pixels per second to indicate a fling
+     * @return The index of the anchor to settle to
+     */
+    int findTargetIndex(float position, float velocity, float minimumVelocity) {
+        if (Math.abs(velocity) <= minimumVelocity || mOpenPosition == mClosedPosition) {
+            return findNearestIndex(position);
+        }
+
+        final int index = Arrays.binarySearch(mFractions, toFraction(position));
+        final boolean isTowardsOpen = velocity * (mOpenPosition - mClosedPosition) > 0;
+        if (index >= 0) {
+            // resting on an anchor, move to its neighbour
+            return isTowardsOpen ? Math.min(index + 1, mFractions.length - 1) : Math.max(index - 1, 0);
+        }
+
+        final int insertion = -index - 1;
+        return isTowardsOpen ? Math.min(insertion, mFractions.length - 1) : Math.max(insertion - 1, 0);
+    }
+
+    /**
+     * @param position The position of the drawer in pixels
+     * @return The fraction of the open distance for the position
+     */
+    float toFraction(float position) {
+        final float range = mOpenPosition - mClosedPosition;
+        return range == 0 ? FRACTION_CLOSED : (position - mClosedPosition) / range;
+    }
+}
@@ -0,0 +1,193 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import android.view.Choreographer;
+
+/**
+ * Process-wide animation clock of {@link CustomDrawerLayout}. All running settle animations are
+ * advanced from a single Choreographer frame callback, therefore the per-frame overhead does not
+ * grow with the number of drawers, e.g. drawers in list rows. The frame callback is only posted
+ * while at least one animation is running. Must only be used from the main thread
+ */
+final class DrawerAnimationDriver implements Choreographer.FrameCallback {
+
+    /**
+     * Animation advanced by the driver
+     */
+    interface Animation {
+
+        /**
+         * Method is used to advance the animation to the given frame
+         *
+         * @param frameTimeNanos The time at which the frame started rendering, in nanoseconds
+         * @return True if the animation needs more frames, false if it finished
+         */
+        boolean doAnimationFrame(long frameTimeNanos);
+    }
+
+    /**
+     * Initial capacity of the animation list, grown when more drawers animate at once
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    private static DrawerAnimationDriver sInstance;
+
+    private DrawerFrameScheduler mFrameScheduler = DrawerFrameScheduler.CHOREOGRAPHER;
+
+    // running animations, removed slots are null until the list is compacted
+    private Animation[] mAnimations = new Animation[INITIAL_CAPACITY];
+    private int mSize;
+    private int mActiveCount;
+    // flag to track if the frame callback is posted
+    private boolean isFramePosted;
+    // flag to defer compaction while animations are advanced
+    private boolean isDispatching;
+
+    /**
+     * Constructor
+     */
+    private DrawerAnimationDriver() {
+        // singleton
+    }
+
+    /**
+     * @return The process-wide driver
+     */
+    @NonNull
+    static DrawerAnimationDriver getInstance() {
+        if (sInstance == null) {
+            sInstance = new DrawerAnimationDriver();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Method is used to start advancing an animation from the next frame on. Adding an
+     * animation that is already running has no effect
+     *
+     * @param animation The animation to advance
+     */
+    void add(@NonNull Animation animation) {
+        if (indexOf(animation) >= 0) {
+            return;
+        }
+        if (mSize == mAnimations.length) {
+            // slots of the frame being dispatched must not move, grow instead
+            if (!isDispatching) {
+                compact();
+            }
+            if (mSize == mAnimations.length) {
+                final Animation[] animations = new Animation[mAnimations.length * 2];
+                System.arraycopy(mAnimations, 0, animations, 0, mSize);
+                mAnimations = animations;
+            }
+        }
+        mAnimations[mSize++] = animation;
+        mActiveCount++;
+        if (!isFramePosted) {
+            isFramePosted = true;
+            mFrameScheduler.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Method is used to stop advancing an animation. The frame callback is removed once no
+     * animation is running
+     *
+     * @param animation The animation to stop
+     */
+    void remove(@NonNull Animation animation) {
+        final int index = indexOf(animation);
+        if (index < 0) {
+            return;
+        }
+        mAnimations[index] = null;
+        mActiveCount--;
+        if (!isDispatching) {
+            compact();
+        }
+        if (mActiveCount == 0 && isFramePosted) {
+            isFramePosted = false;
+            mFrameScheduler.removeFrameCallback(this);
+        }
+    }
+
+    /**
+     * Method is used to replace the frame scheduler, e.g. by a test that measures allocations.
+     * A posted frame callback is moved to the new scheduler
+     *
+     * @param scheduler The scheduler to post the frame callback with
+     */
+    @VisibleForTesting
+    void setFrameScheduler(@NonNull DrawerFrameScheduler scheduler) {
+        if (isFramePosted) {
+            mFrameScheduler.removeFrameCallback(this);
+            scheduler.postFrameCallback(this);
+        }
+        mFrameScheduler = scheduler;
+    }
+
+    /**
+     * @return The number of running animations
+     */
+    int getActiveCount() {
+        return mActiveCount;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFramePosted = false;
+        isDispatching = true;
+        // animations added while dispatching start on the next frame
+        final int size = mSize;
+        for (int i = 0; i < size; i++) {
+            final Animation animation = mAnimations[i];
+            if (animation != null && !animation.doAnimationFrame(frameTimeNanos) &&
+                    mAnimations[i] == animation) {
+                // finished, unless the animation was restarted from its own frame
+                mAnimations[i] = null;
+                mActiveCount--;
+            }
+        }
+        isDispatching = false;
+        compact();
+
+        if (mActiveCount > 0 && !isFramePosted) {
+            isFramePosted = true;
+            mFrameScheduler.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Method is used to find a running animation
+     *
+     * @param animation The animation to find
+     * @return The index of the animation, or -1 if it is not running
+     */
+    private int indexOf(@NonNull Animation animation) {
+        for (int i = 0; i < mSize; i++) {
+            if (mAnimations[i] == animation) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method is used to remove the empty slots of removed animations, keeping the order of
+     * the running animations
+     */
+    private void compact() {
+        int size = 0;
+        for (int i = 0; i < mSize; i++) {
+            if (mAnimations[i] != null) {
+                mAnimations[size++] = mAnimations[i];
+            }
+        }
+        for (int i = size; i < mSize; i++) {
+            mAnimations[i] = null;
+        }
+        mSize = size;
+    }
+}
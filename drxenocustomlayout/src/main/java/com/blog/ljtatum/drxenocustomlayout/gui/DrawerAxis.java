@@ -0,0 +1,334 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.v4.view.ViewCompat;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Axis strategy for {@link CustomDrawerLayout}. The strategy is chosen once for the gravity of
+ * the drawer, so that the touch and animation paths read coordinates, positions and velocities
+ * without switching on the gravity for every event.
+ * <p>Positions are along the axis of the drawer and relative to its parent. The drawer is fully
+ * opened where its parent laid it out, e.g. with layout_gravity and margins, and closed when only
+ * its offset sticks out of the edge of the parent it sticks to</p>
+ */
+abstract class DrawerAxis {
+
+    // true if the drawer closes towards larger coordinates, e.g. bottom and right
+    private final boolean isClosedAfterOpen;
+
+    /**
+     * Constructor
+     *
+     * @param isClosedAfterOpen True if the drawer closes towards larger coordinates
+     */
+    DrawerAxis(boolean isClosedAfterOpen) {
+        this.isClosedAfterOpen = isClosedAfterOpen;
+    }
+
+    /**
+     * Method is used to create the axis strategy for a gravity
+     *
+     * @param gravity The gravity of the drawer, e.g. {@link CustomDrawerLayout#GRAVITY_BOTTOM}
+     * @return The axis strategy for the gravity
+     */
+    static DrawerAxis forGravity(int gravity) {
+        switch (gravity) {
+            case CustomDrawerLayout.GRAVITY_BOTTOM:
+                return new VerticalAxis(true);
+            case CustomDrawerLayout.GRAVITY_TOP:
+                return new VerticalAxis(false);
+            case CustomDrawerLayout.GRAVITY_RIGHT:
+                return new HorizontalAxis(true);
+            case CustomDrawerLayout.GRAVITY_LEFT:
+                return new HorizontalAxis(false);
+            default:
+                throw new IllegalStateException("Unsupported gravity " + gravity);
+        }
+    }
+
+    /**
+     * @param parentLength The length of the parent along the axis
+     * @param length       The length of the drawer along the axis
+     * @param offset       The offset that sticks out when closed
+     * @return The position of the drawer when closed
+     */
+    final float getClosedPosition(int parentLength, int length, int offset) {
+        return isClosedAfterOpen ? parentLength - offset : offset - length;
+    }
+
+    /**
+     * @param coordinate The coordinate along the axis, relative to the drawer
+     * @param length     The length of the drawer along the axis
+     * @param offset     The offset that sticks out when closed
+     * @return True if the coordinate is on the part of the drawer that sticks out when closed
+     */
+    final boolean isInOffsetRegion(float coordinate, int length, int offset) {
+        return isClosedAfterOpen ? coordinate < offset : coordinate >= length - offset;
+    }
+
+    /**
+     * @param width   The width of the drawer
+     * @param height  The height of the drawer
+     * @param offset  The offset that sticks out when closed
+     * @param outRect Reusable rect to hold the part of the drawer that sticks out when closed,
+     *                relative to the drawer
+     */
+    final void getOffsetRegion(int width, int height, int offset, @NonNull Rect outRect) {
+        final int length = select(width, height);
+        final int start = isClosedAfterOpen ? 0 : length - offset;
+        final int end = isClosedAfterOpen ? offset : length;
+        // the region spans the drawer across the axis
+        outRect.set(select(start, 0), select(0, start), select(end, width), select(height, end));
+    }
+
+    /**
+     * @param event The motion event
+     * @return The coordinate along the axis, relative to the view receiving the event
+     */
+    abstract float getCoordinate(@NonNull MotionEvent event);
+
+    /**
+     * @param event The motion event
+     * @return The raw screen coordinate along the axis
+     */
+    abstract float getRawCoordinate(@NonNull MotionEvent event);
+
+    /**
+     * @param event The motion event
+     * @param pos   The index of the historical sample
+     * @return The historical coordinate along the axis, relative to the view receiving the event
+     */
+    abstract float getHistoricalCoordinate(@NonNull MotionEvent event, int pos);
+
+    /**
+     * @param view The drawer
+     * @return The position of the drawer along the axis
+     */
+    abstract float getPosition(@NonNull View view);
+
+    /**
+     * @param view     The drawer
+     * @param position The position of the drawer along the axis
+     */
+    abstract void setPosition(@NonNull View view, float position);
+
+    /**
+     * @param view The drawer
+     * @return The position the parent laid the drawer out at along the axis, without translation
+     */
+    abstract int getLayoutPosition(@NonNull View view);
+
+    /**
+     * @param view The view to measure
+     * @return The length of the view along the axis
+     */
+    abstract int getLength(@NonNull View view);
+
+    /**
+     * @param velocityTracker Velocity tracker with computed velocities
+     * @return The velocity along the axis
+     */
+    abstract float getVelocity(@NonNull VelocityTracker velocityTracker);
+
+    /**
+     * @param params The layout params of the drawer
+     * @return The leading margin along the axis
+     */
+    abstract int getLeadingMargin(@NonNull ViewGroup.MarginLayoutParams params);
+
+    /**
+     * @return The nested scroll axis, e.g. {@link ViewCompat#SCROLL_AXIS_VERTICAL}
+     */
+    abstract int getNestedScrollAxis();
+
+    /**
+     * @param x The horizontal value
+     * @param y The vertical value
+     * @return The value along the axis
+     */
+    abstract int select(int x, int y);
+
+    /**
+     * @param x The horizontal value
+     * @param y The vertical value
+     * @return The value along the axis
+     */
+    abstract float select(float x, float y);
+
+    /**
+     * @return The index of the axis in a consumed [x, y] array
+     */
+    abstract int getConsumedIndex();
+
+    /**
+     * @param view      The scrollable view
+     * @param direction Negative to check scrolling towards the start, positive towards the end
+     * @return True if the view can scroll in the direction along the axis
+     */
+    abstract boolean canScroll(@NonNull View view, int direction);
+
+    /**
+     * Axis for drawers that stick to the top or bottom
+     */
+    private static final class VerticalAxis extends DrawerAxis {
+
+        VerticalAxis(boolean isClosedAfterOpen) {
+            super(isClosedAfterOpen);
+        }
+
+        @Override
+        float getCoordinate(@NonNull MotionEvent event) {
+            return event.getY();
+        }
+
+        @Override
+        float getRawCoordinate(@NonNull MotionEvent event) {
+            return event.getRawY();
+        }
+
+        @Override
+        float getHistoricalCoordinate(@NonNull MotionEvent event, int pos) {
+            return event.getHistoricalY(pos);
+        }
+
+        @Override
+        float getPosition(@NonNull View view) {
+            return view.getY();
+        }
+
+        @Override
+        void setPosition(@NonNull View view, float position) {
+            view.setY(position);
+        }
+
+        @Override
+        int getLayoutPosition(@NonNull View view) {
+            return view.getTop();
+        }
+
+        @Override
+        int getLength(@NonNull View view) {
+            return view.getHeight();
+        }
+
+        @Override
+        float getVelocity(@NonNull VelocityTracker velocityTracker) {
+            return velocityTracker.getYVelocity();
+        }
+
+        @Override
+        int getLeadingMargin(@NonNull ViewGroup.MarginLayoutParams params) {
+            return params.topMargin;
+        }
+
+        @Override
+        int getNestedScrollAxis() {
+            return ViewCompat.SCROLL_AXIS_VERTICAL;
+        }
+
+        @Override
+        int select(int x, int y) {
+            return y;
+        }
+
+        @Override
+        float select(float x, float y) {
+            return y;
+        }
+
+        @Override
+        int getConsumedIndex() {
+            return 1;
+        }
+
+        @Override
+        boolean canScroll(@NonNull View view, int direction) {
+            return view.canScrollVertically(direction);
+        }
+    }
+
+    /**
+     * Axis for drawers that stick to the left or right
+     */
+    private static final class HorizontalAxis extends DrawerAxis {
+
+        HorizontalAxis(boolean isClosedAfterOpen) {
+            super(isClosedAfterOpen);
+        }
+
+        @Override
+        float getCoordinate(@NonNull MotionEvent event) {
+            return event.getX();
+        }
+
+        @Override
+        float getRawCoordinate(@NonNull MotionEvent event) {
+            return event.getRawX();
+        }
+
+        @Override
+        float getHistoricalCoordinate(@NonNull MotionEvent event, int pos) {
+            return event.getHistoricalX(pos);
+        }
+
+        @Override
+        float getPosition(@NonNull View view) {
+            return view.getX();
+        }
+
+        @Override
+        void setPosition(@NonNull View view, float position) {
+            view.setX(position);
+        }
+
+        @Override
+        int getLayoutPosition(@NonNull View view) {
+            return view.getLeft();
+        }
+
+        @Override
+        int getLength(@NonNull View view) {
+            return view.getWidth();
+        }
+
+        @Override
+        float getVelocity(@NonNull VelocityTracker velocityTracker) {
+            return velocityTracker.getXVelocity();
+        }
+
+        @Override
+        int getLeadingMargin(@NonNull ViewGroup.MarginLayoutParams params) {
+            return params.leftMargin;
+        }
+
+        @Override
+        int getNestedScrollAxis() {
+            return ViewCompat.SCROLL_AXIS_HORIZONTAL;
+        }
+
+        @Override
+        int select(int x, int y) {
+            return x;
+        }
+
+        @Override
+        float select(float x, float y) {
+            return x;
+        }
+
+        @Override
+        int getConsumedIndex() {
+            return 0;
+        }
+
+        @Override
+        boolean canScroll(@NonNull View view, int direction) {
+            return view.canScrollHorizontally(direction);
+        }
+    }
+}
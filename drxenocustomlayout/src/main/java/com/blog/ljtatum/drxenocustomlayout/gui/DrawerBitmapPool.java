@@ -0,0 +1,104 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+/**
+ * Pool of snapshot bitmaps shared by all drawers. A snapshot is as large as the drawer, therefore
+ * reusing bitmaps between gestures avoids a large allocation and a garbage collection at the
+ * start of every drag. The pool is only kept while at least one drawer is attached to a window.
+ * Must only be used from the main thread
+ */
+final class DrawerBitmapPool {
+
+    /**
+     * Number of bitmaps kept for reuse, e.g. one per drawer in a typical layout
+     */
+    private static final int POOL_CAPACITY = 2;
+
+    private static final Bitmap[] sBitmaps = new Bitmap[POOL_CAPACITY];
+    // number of drawers attached to a window
+    private static int sAttachedCount;
+
+    /**
+     * Constructor
+     */
+    private DrawerBitmapPool() {
+        // static pool
+    }
+
+    /**
+     * Method is used to keep the pool while the drawer is attached to a window
+     */
+    static void onDrawerAttached() {
+        sAttachedCount++;
+    }
+
+    /**
+     * Method is used to recycle the pooled bitmaps once the last drawer is detached from its
+     * window. Snapshots are released by the drawer before it is detached
+     */
+    static void onDrawerDetached() {
+        if (sAttachedCount > 0) {
+            sAttachedCount--;
+        }
+        if (sAttachedCount == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Method is used to recycle all pooled bitmaps
+     */
+    static void clear() {
+        for (int i = 0; i < POOL_CAPACITY; i++) {
+            if (!Utils.checkIfNull(sBitmaps[i])) {
+                sBitmaps[i].recycle();
+                sBitmaps[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Method is used to get a bitmap of the given size, reused from the pool if available
+     *
+     * @param width  The width of the bitmap
+     * @param height The height of the bitmap
+     * @return A bitmap of the given size, its content is undefined
+     */
+    @NonNull
+    static Bitmap acquire(int width, int height) {
+        for (int i = 0; i < POOL_CAPACITY; i++) {
+            final Bitmap bitmap = sBitmaps[i];
+            if (!Utils.checkIfNull(bitmap) && bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                sBitmaps[i] = null;
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Method is used to return a bitmap to the pool. The oldest bitmap is recycled if the pool
+     * is full
+     *
+     * @param bitmap The bitmap that is no longer used
+     */
+    static void release(@NonNull Bitmap bitmap) {
+        if (bitmap.isRecycled()) {
+            return;
+        }
+        for (int i = 0; i < POOL_CAPACITY; i++) {
+            if (Utils.checkIfNull(sBitmaps[i])) {
+                sBitmaps[i] = bitmap;
+                return;
+            }
+        }
+        // pool is full, replace the oldest bitmap
+        sBitmaps[0].recycle();
+        System.arraycopy(sBitmaps, 1, sBitmaps, 0, POOL_CAPACITY - 1);
+        sBitmaps[POOL_CAPACITY - 1] = bitmap;
+    }
+}
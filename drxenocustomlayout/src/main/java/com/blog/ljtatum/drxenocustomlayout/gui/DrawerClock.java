@@ -0,0 +1,24 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+/**
+ * Time source of {@link CustomDrawerLayout} for times that are not carried by a MotionEvent,
+ * e.g. the start of a settle animation. Replaceable so that recorded gestures can be replayed
+ * deterministically
+ */
+interface DrawerClock {
+
+    /**
+     * Clock backed by {@link System#nanoTime()}, the time base of Choreographer frame times
+     */
+    DrawerClock SYSTEM = new DrawerClock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * @return The current time in nanoseconds, in the {@link System#nanoTime()} time base
+     */
+    long nanoTime();
+}
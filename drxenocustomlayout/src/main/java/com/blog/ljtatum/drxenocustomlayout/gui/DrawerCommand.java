@@ -0,0 +1,189 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Completion handle of {@link CustomDrawerLayout#requestLockMode(CustomDrawerLayout.LockMode)}.
+ * The command completes with the requested lock mode once the drawer rests in that state. It is
+ * cancelled if a later request for another state supersedes it, or if the drawer comes to rest
+ * in another state, e.g. because the user dragged it.
+ * <p>The blocking {@link #get()} methods must not be called from the main thread, since the
+ * drawer only settles on the main thread. Use {@link #setOnCommandFinishedListener} instead</p>
+ */
+public final class DrawerCommand implements Future<CustomDrawerLayout.LockMode> {
+
+    /**
+     * Command states
+     */
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_DONE = 1;
+    private static final int STATE_CANCELLED = 2;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final CustomDrawerLayout.LockMode mTarget;
+    // state and listener, guarded by this
+    private int mState;
+    @Nullable
+    private OnCommandFinishedListener mListener;
+
+    /**
+     * Constructor
+     *
+     * @param target The lock mode the drawer is requested to reach
+     */
+    DrawerCommand(@NonNull CustomDrawerLayout.LockMode target) {
+        mTarget = target;
+        mState = STATE_PENDING;
+    }
+
+    /**
+     * @return The lock mode the drawer is requested to reach
+     */
+    @NonNull
+    public CustomDrawerLayout.LockMode getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * Method is used to cancel the command. A command that is cancelled before it was applied is
+     * dropped, a command that is already animating lets the drawer settle but does not complete
+     *
+     * @param mayInterruptIfRunning Ignored, the drawer animation is not interrupted
+     * @return True if the command was cancelled, false if it already finished
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return finish(STATE_CANCELLED);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return mState == STATE_CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return mState != STATE_PENDING;
+    }
+
+    @Override
+    public synchronized CustomDrawerLayout.LockMode get() throws InterruptedException {
+        while (mState == STATE_PENDING) {
+            wait();
+        }
+        return getResult();
+    }
+
+    @Override
+    public synchronized CustomDrawerLayout.LockMode get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (mState == STATE_PENDING) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException("Drawer did not reach " + mTarget);
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return getResult();
+    }
+
+    /**
+     * Method is used to set a listener that is called on the main thread once the command
+     * completes or is cancelled. If the command already finished, the listener is called right
+     * away, or posted to the main thread when set from another thread
+     *
+     * @param listener The listener, or null to remove it
+     */
+    @SuppressWarnings("unused")
+    public void setOnCommandFinishedListener(@Nullable OnCommandFinishedListener listener) {
+        final boolean isFinished;
+        synchronized (this) {
+            mListener = listener;
+            isFinished = mState != STATE_PENDING;
+        }
+        if (isFinished && !Utils.checkIfNull(listener)) {
+            notifyFinished(listener);
+        }
+    }
+
+    /**
+     * Method is used to complete the command once the drawer rests in the target state
+     */
+    void complete() {
+        finish(STATE_DONE);
+    }
+
+    /**
+     * Method is used to move the command to a final state, wake up waiting threads and notify
+     * the listener
+     *
+     * @param state The final state
+     * @return True if the state changed, false if the command already finished
+     */
+    private boolean finish(int state) {
+        final OnCommandFinishedListener listener;
+        synchronized (this) {
+            if (mState != STATE_PENDING) {
+                return false;
+            }
+            mState = state;
+            notifyAll();
+            listener = mListener;
+        }
+        // the listener is called outside the lock, it may query the command
+        if (!Utils.checkIfNull(listener)) {
+            notifyFinished(listener);
+        }
+        return true;
+    }
+
+    /**
+     * Method is used to call the listener on the main thread
+     *
+     * @param listener The listener to call
+     */
+    private void notifyFinished(@NonNull final OnCommandFinishedListener listener) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            listener.onCommandFinished(this);
+            return;
+        }
+        sMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onCommandFinished(DrawerCommand.this);
+            }
+        });
+    }
+
+    /**
+     * @return The target lock mode of a finished command
+     */
+    private CustomDrawerLayout.LockMode getResult() {
+        if (mState == STATE_CANCELLED) {
+            throw new CancellationException("Drawer request for " + mTarget + " was cancelled");
+        }
+        return mTarget;
+    }
+
+    public interface OnCommandFinishedListener {
+        /**
+         * Called on the main thread once the command completed or was cancelled, see
+         * {@link DrawerCommand#isCancelled()}
+         *
+         * @param command The finished command
+         */
+        void onCommandFinished(@NonNull DrawerCommand command);
+    }
+}
@@ -0,0 +1,115 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.AnyThread;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+/**
+ * Coalescing queue of lock mode requests of {@link CustomDrawerLayout}. Requests may come from
+ * any thread, only the latest pending request is kept. It is handed to the main thread through
+ * its looper and applied on the next animation frame, therefore a burst of requests starts at
+ * most one animation per frame
+ */
+final class DrawerCommandQueue implements Runnable, Choreographer.FrameCallback {
+
+    private final CustomDrawerLayout mDrawer;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // latest request that has not been applied yet, guarded by this
+    @Nullable
+    private DrawerCommand mPending;
+    // flag to track if the queue is posted to the main thread or the next frame, guarded by this
+    private boolean isPosted;
+    // applied request the drawer is settling towards, main thread only
+    @Nullable
+    private DrawerCommand mActive;
+
+    /**
+     * Constructor
+     *
+     * @param drawer The drawer the requests are applied to
+     */
+    DrawerCommandQueue(@NonNull CustomDrawerLayout drawer) {
+        mDrawer = drawer;
+    }
+
+    /**
+     * Method is used to queue a request. A pending request for the same state is shared, a
+     * pending request for another state is cancelled
+     *
+     * @param target The lock mode the drawer is requested to reach
+     * @return The completion handle of the request
+     */
+    @AnyThread
+    @NonNull
+    DrawerCommand request(@NonNull CustomDrawerLayout.LockMode target) {
+        synchronized (this) {
+            if (!Utils.checkIfNull(mPending) && mPending.getTarget() == target && !mPending.isDone()) {
+                return mPending;
+            }
+            if (!Utils.checkIfNull(mPending)) {
+                // superseded by the latest request
+                mPending.cancel(false);
+            }
+            mPending = new DrawerCommand(target);
+            if (!isPosted) {
+                // not a view post, before API 24 a view post from a background thread while the
+                // drawer is detached is kept by the calling thread and never runs. The post only
+                // fails if the main looper is quitting, the next request tries again
+                isPosted = mMainHandler.post(this);
+            }
+            return mPending;
+        }
+    }
+
+    @MainThread
+    @Override
+    public void run() {
+        // on the main thread, wait for the next frame
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @MainThread
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        final DrawerCommand command;
+        synchronized (this) {
+            command = mPending;
+            mPending = null;
+            isPosted = false;
+        }
+        if (Utils.checkIfNull(command) || command.isDone()) {
+            return;
+        }
+        if (!Utils.checkIfNull(mActive) && mActive != command) {
+            // the drawer turns towards the latest request
+            mActive.cancel(false);
+        }
+        mActive = command;
+        mDrawer.applyCommand(command.getTarget());
+    }
+
+    /**
+     * Method is used to complete or cancel the applied request once the drawer rests
+     *
+     * @param lockMode The lock mode the drawer rests in
+     */
+    @MainThread
+    void onSettled(@NonNull CustomDrawerLayout.LockMode lockMode) {
+        if (Utils.checkIfNull(mActive)) {
+            return;
+        }
+        final DrawerCommand command = mActive;
+        mActive = null;
+        if (command.getTarget() == lockMode) {
+            command.complete();
+        } else {
+            command.cancel(false);
+        }
+    }
+}
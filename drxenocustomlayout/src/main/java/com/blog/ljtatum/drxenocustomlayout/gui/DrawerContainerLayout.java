@@ -0,0 +1,301 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+
+import com.blog.ljtatum.drxenocustomlayout.R;
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+/**
+ * Container for a {@link CustomDrawerLayout} and the content behind it. The container dims the
+ * content with a scrim and optionally moves it with a parallax offset, both tied to the position
+ * of the drawer. Both are drawn in the draw pass of the container with a single reused Paint,
+ * therefore no additional view, layer or layout pass is needed to dim the content.
+ * <p>The drawer may be nested in any direct child of the container. Direct children drawn before
+ * the child holding the drawer are treated as content. The parallax offset is only applied when
+ * drawing, touch events still reach the content at its laid out position</p>
+ */
+@SuppressWarnings("unused")
+public class DrawerContainerLayout extends FrameLayout {
+
+    /**
+     * The default scrim color, black at 60% alpha
+     */
+    private static final int DEFAULT_SCRIM_COLOR = 0x99000000;
+
+    @ColorInt
+    private int mScrimColor = DEFAULT_SCRIM_COLOR;
+    private float mParallaxFactor;
+    private final Paint mScrimPaint = new Paint();
+    // drawer and the direct child holding it, looked up again when children change
+    @Nullable
+    private CustomDrawerLayout mDrawer;
+    @Nullable
+    private View mDrawerChild;
+    private boolean isDrawerResolved;
+    // slide offset of the last draw, redraws are only requested when the drawer moved
+    private float mDrawnSlideOffset;
+    private final ViewTreeObserver.OnPreDrawListener mPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            final CustomDrawerLayout drawer = getDrawer();
+            if (!Utils.checkIfNull(drawer) && isDrawingEffects() && drawer.getSlideOffset() != mDrawnSlideOffset) {
+                // invalidated before the draw pass, the scrim moves in the same frame as the drawer
+                invalidate();
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Constructor
+     *
+     * @param context Interface to global information about an application environment
+     */
+    public DrawerContainerLayout(@NonNull Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context Interface to global information about an application environment
+     * @param attrs   A collection of attributes, as found associated with a tag in an XML document
+     */
+    public DrawerContainerLayout(@NonNull Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context      Interface to global information about an application environment
+     * @param attrs        A collection of attributes, as found associated with a tag in an XML document
+     * @param defStyleAttr The defined style
+     */
+    public DrawerContainerLayout(@NonNull Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        // get the attributes specified in attrs.xml
+        TypedArray a = context.getTheme().obtainStyledAttributes(attrs,
+                R.styleable.DrawerContainerLayout, 0, 0);
+
+        try {
+            mScrimColor = a.getColor(R.styleable.DrawerContainerLayout_scrimColor, DEFAULT_SCRIM_COLOR);
+            mParallaxFactor = a.getFloat(R.styleable.DrawerContainerLayout_parallaxFactor, 0);
+        } finally {
+            a.recycle();
+        }
+    }
+
+    /**
+     * Method is used to set the scrim color. The alpha of the color is the alpha of the scrim
+     * when the drawer is fully opened, the scrim is transparent when the drawer is closed
+     *
+     * @param color The scrim color, use a transparent color to disable the scrim
+     */
+    public void setScrimColor(@ColorInt int color) {
+        mScrimColor = color;
+        invalidate();
+    }
+
+    /**
+     * @return The scrim color
+     */
+    @ColorInt
+    public int getScrimColor() {
+        return mScrimColor;
+    }
+
+    /**
+     * Method is used to set the parallax factor. The content moves by this fraction of the
+     * distance the drawer moved from its closed position
+     *
+     * @param factor The parallax factor, e.g. 0.3, or 0 to disable parallax
+     */
+    public void setParallaxFactor(float factor) {
+        mParallaxFactor = factor;
+        invalidate();
+    }
+
+    /**
+     * @return The parallax factor
+     */
+    public float getParallaxFactor() {
+        return mParallaxFactor;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnPreDrawListener(mPreDrawListener);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnPreDrawListener(mPreDrawListener);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        isDrawerResolved = false;
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        isDrawerResolved = false;
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        final CustomDrawerLayout drawer = getDrawer();
+        mDrawnSlideOffset = Utils.checkIfNull(drawer) ? 0 : drawer.getSlideOffset();
+        super.dispatchDraw(canvas);
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        final CustomDrawerLayout drawer = getDrawer();
+        if (Utils.checkIfNull(drawer) || !isDrawingEffects()) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+
+        if (child == mDrawerChild) {
+            // the scrim covers the content, but not the drawer
+            drawScrim(canvas, drawer);
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        if (mParallaxFactor == 0 || indexOfChild(child) > indexOfChild(mDrawerChild)) {
+            // children drawn above the drawer are not content
+            return super.drawChild(canvas, child, drawingTime);
+        }
+
+        // move the content with the drawer
+        final DrawerAxis axis = drawer.getAxis();
+        final float distance = drawer.getSlideDistance() * mParallaxFactor;
+        final int saveCount = canvas.save();
+        canvas.translate(axis.select(distance, 0), axis.select(0, distance));
+        final boolean result = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return result;
+    }
+
+    /**
+     * Method is used to draw the scrim over the parts of the container that the drawer does not
+     * cover
+     *
+     * @param canvas The canvas of the container
+     * @param drawer The drawer
+     */
+    private void drawScrim(@NonNull Canvas canvas, @NonNull CustomDrawerLayout drawer) {
+        final int baseAlpha = mScrimColor >>> 24;
+        final int alpha = (int) (baseAlpha * Math.max(0f, Math.min(1f, drawer.getSlideOffset())));
+        if (alpha == 0) {
+            return;
+        }
+
+        // bounds of the drawer in the coordinates of the container
+        float left = 0;
+        float top = 0;
+        View view = drawer;
+        while (view != this) {
+            left += view.getLeft() + view.getTranslationX();
+            top += view.getTop() + view.getTranslationY();
+            final ViewParent parent = view.getParent();
+            if (!(parent instanceof ViewGroup)) {
+                return;
+            }
+            view = (View) parent;
+            if (view != this) {
+                left -= view.getScrollX();
+                top -= view.getScrollY();
+            }
+        }
+        final float right = left + drawer.getWidth();
+        final float bottom = top + drawer.getHeight();
+        final int width = getWidth();
+        final int height = getHeight();
+
+        mScrimPaint.setColor((alpha << 24) | (mScrimColor & 0x00ffffff));
+        if (top > 0) {
+            canvas.drawRect(0, 0, width, top, mScrimPaint);
+        }
+        if (bottom < height) {
+            canvas.drawRect(0, Math.max(0, bottom), width, height, mScrimPaint);
+        }
+        final float clampedTop = Math.max(0, top);
+        final float clampedBottom = Math.min(height, bottom);
+        if (left > 0 && clampedBottom > clampedTop) {
+            canvas.drawRect(0, clampedTop, left, clampedBottom, mScrimPaint);
+        }
+        if (right < width && clampedBottom > clampedTop) {
+            canvas.drawRect(Math.max(0, right), clampedTop, width, clampedBottom, mScrimPaint);
+        }
+    }
+
+    /**
+     * @return True if the scrim or parallax is enabled, otherwise false
+     */
+    private boolean isDrawingEffects() {
+        return (mScrimColor >>> 24) != 0 || mParallaxFactor != 0;
+    }
+
+    /**
+     * Method is used to get the drawer, looked up among the descendants when children changed
+     *
+     * @return The drawer, or null if the container does not hold a drawer
+     */
+    @Nullable
+    private CustomDrawerLayout getDrawer() {
+        if (!isDrawerResolved) {
+            isDrawerResolved = true;
+            mDrawer = null;
+            mDrawerChild = null;
+            for (int i = 0; i < getChildCount() && Utils.checkIfNull(mDrawer); i++) {
+                final View child = getChildAt(i);
+                mDrawer = findDrawer(child);
+                if (!Utils.checkIfNull(mDrawer)) {
+                    mDrawerChild = child;
+                }
+            }
+        }
+        return mDrawer;
+    }
+
+    /**
+     * Method is used to find the first drawer in a view hierarchy
+     *
+     * @param view The root of the view hierarchy
+     * @return The drawer, or null if the hierarchy does not hold a drawer
+     */
+    @Nullable
+    private static CustomDrawerLayout findDrawer(@NonNull View view) {
+        if (view instanceof CustomDrawerLayout) {
+            return (CustomDrawerLayout) view;
+        }
+        if (view instanceof ViewGroup) {
+            final ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                final CustomDrawerLayout drawer = findDrawer(group.getChildAt(i));
+                if (!Utils.checkIfNull(drawer)) {
+                    return drawer;
+                }
+            }
+        }
+        return null;
+    }
+}
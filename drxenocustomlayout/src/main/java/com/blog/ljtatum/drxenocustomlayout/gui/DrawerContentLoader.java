@@ -0,0 +1,138 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+/**
+ * Inflates the content layout of {@link CustomDrawerLayout} off the critical path. Until the
+ * content is inflated an empty placeholder takes its place in the drawer. Inflation runs on a
+ * background thread and starts when the main looper is first idle after the drawer is attached,
+ * or earlier when the drawer is about to be opened
+ */
+final class DrawerContentLoader implements MessageQueue.IdleHandler,
+        AsyncLayoutInflater.OnInflateFinishedListener {
+
+    /**
+     * Inflation states
+     */
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_INFLATING = 1;
+    private static final int STATE_INFLATED = 2;
+
+    private final CustomDrawerLayout mDrawer;
+    @LayoutRes
+    private final int mLayoutResId;
+    private final View mPlaceholder;
+    @Nullable
+    private View mContent;
+    private int mState;
+    // flag to track if the idle handler is registered
+    private boolean isIdleHandlerAdded;
+
+    /**
+     * Constructor
+     *
+     * @param drawer      The drawer to add the content to
+     * @param layoutResId The content layout resource
+     */
+    DrawerContentLoader(@NonNull CustomDrawerLayout drawer, @LayoutRes int layoutResId) {
+        mDrawer = drawer;
+        mLayoutResId = layoutResId;
+        mPlaceholder = new View(drawer.getContext());
+        mState = STATE_PENDING;
+    }
+
+    /**
+     * Method is used to add the placeholder to the drawer. The placeholder is added behind the
+     * other children, e.g. the peek layout
+     */
+    void addPlaceholder() {
+        mDrawer.addView(mPlaceholder, 0, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+    }
+
+    /**
+     * Method is used to start inflation once the main looper is idle
+     */
+    void scheduleOnIdle() {
+        if (mState == STATE_PENDING && !isIdleHandlerAdded) {
+            Looper.myQueue().addIdleHandler(this);
+            isIdleHandlerAdded = true;
+        }
+    }
+
+    /**
+     * Method is used to stop waiting for the main looper to be idle, e.g. when detached
+     */
+    void cancelOnIdle() {
+        if (isIdleHandlerAdded) {
+            Looper.myQueue().removeIdleHandler(this);
+            isIdleHandlerAdded = false;
+        }
+    }
+
+    /**
+     * Method is used to start inflation right away if it has not started yet
+     */
+    void prefetch() {
+        if (mState != STATE_PENDING) {
+            return;
+        }
+        cancelOnIdle();
+        mState = STATE_INFLATING;
+        new AsyncLayoutInflater(mDrawer.getContext()).inflate(mLayoutResId, mDrawer, this);
+    }
+
+    /**
+     * @return The inflated content, or null if inflation has not finished
+     */
+    @Nullable
+    View getContent() {
+        return mContent;
+    }
+
+    /**
+     * Method is used to remove the placeholder or content from the drawer
+     */
+    void release() {
+        cancelOnIdle();
+        mDrawer.removeView(Utils.checkIfNull(mContent) ? mPlaceholder : mContent);
+        // an inflation that is still running is ignored when it finishes
+        mState = STATE_INFLATED;
+    }
+
+    @Override
+    public boolean queueIdle() {
+        isIdleHandlerAdded = false;
+        prefetch();
+        // remove idle handler
+        return false;
+    }
+
+    @Override
+    public void onInflateFinished(@NonNull View view, int resid, ViewGroup parent) {
+        if (mState != STATE_INFLATING) {
+            return;
+        }
+        mState = STATE_INFLATED;
+
+        // replace the placeholder in place, keeping the drawing order of the other children
+        final int index = mDrawer.indexOfChild(mPlaceholder);
+        if (index < 0) {
+            // the placeholder was removed from the drawer, treat it as released and drop the view
+            return;
+        }
+        mContent = view;
+        mDrawer.removeViewAt(index);
+        mDrawer.addView(view, index);
+        mDrawer.notifyContentInflated(view);
+    }
+}
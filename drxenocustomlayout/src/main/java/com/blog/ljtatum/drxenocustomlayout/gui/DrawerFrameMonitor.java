@@ -0,0 +1,182 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+import android.view.WindowManager;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Collects frame timing of {@link CustomDrawerLayout} through {@link Choreographer} frame
+ * callbacks. Frame durations are kept in a preallocated ring buffer and percentiles are computed
+ * on a preallocated scratch copy once the phase ends, therefore monitoring does not allocate
+ * while the drawer moves
+ */
+final class DrawerFrameMonitor implements Choreographer.FrameCallback {
+
+    /**
+     * Number of frame durations kept per phase, the percentiles are computed over the most
+     * recent frames. Sorting up to this many primitives does not allocate
+     */
+    private static final int FRAME_BUFFER_CAPACITY = 256;
+    /**
+     * Frame interval used if the refresh rate of the display is unknown, 60 Hz
+     */
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+    private final View mView;
+    private final DrawerAxis mAxis;
+    private final CustomDrawerLayout.DrawerPerformanceListener mListener;
+    private final long mFrameIntervalNanos;
+    // ring buffer of frame durations and scratch copy for sorting
+    private final long[] mFrameDurations = new long[FRAME_BUFFER_CAPACITY];
+    private final long[] mSortedFrameDurations = new long[FRAME_BUFFER_CAPACITY];
+    // stats reused for every report
+    private final DrawerFrameStats mStats = new DrawerFrameStats();
+    private int mPhase;
+    private int mFrameCount, mDurationCount, mDroppedFrameCount;
+    private long mInputTimeNanos, mLastFrameTimeNanos, mFirstMoveLatencyNanos;
+    private float mStartPosition;
+    // flag to track if a phase is being monitored
+    private boolean isRunning;
+
+    /**
+     * Constructor
+     *
+     * @param view     The drawer
+     * @param axis     The axis strategy of the drawer, used to detect the first move
+     * @param listener Callback for the frame timing of each phase
+     */
+    DrawerFrameMonitor(@NonNull View view, @NonNull DrawerAxis axis,
+                       @NonNull CustomDrawerLayout.DrawerPerformanceListener listener) {
+        mView = view;
+        mAxis = axis;
+        mListener = listener;
+        mFrameIntervalNanos = getFrameIntervalNanos(view.getContext());
+    }
+
+    /**
+     * Method is used to start monitoring a phase. A running phase of another kind is reported
+     * first, a running phase of the same kind keeps being monitored
+     *
+     * @param phase          The phase, e.g. {@link DrawerFrameStats#PHASE_DRAG}
+     * @param inputTimeNanos The time of the input that started the phase, in the
+     *                       {@link System#nanoTime()} time base
+     */
+    void start(int phase, long inputTimeNanos) {
+        if (isRunning) {
+            if (mPhase == phase) {
+                return;
+            }
+            stop();
+        }
+
+        mPhase = phase;
+        mInputTimeNanos = inputTimeNanos;
+        mStartPosition = mAxis.getPosition(mView);
+        mFrameCount = 0;
+        mDurationCount = 0;
+        mDroppedFrameCount = 0;
+        mLastFrameTimeNanos = 0;
+        mFirstMoveLatencyNanos = -1;
+        isRunning = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Method is used to stop monitoring and report the current phase
+     */
+    void stop() {
+        if (!isRunning) {
+            return;
+        }
+        isRunning = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+
+        final int count = Math.min(mDurationCount, FRAME_BUFFER_CAPACITY);
+        System.arraycopy(mFrameDurations, 0, mSortedFrameDurations, 0, count);
+        Arrays.sort(mSortedFrameDurations, 0, count);
+
+        mStats.mPhase = mPhase;
+        mStats.mFrameCount = mFrameCount;
+        mStats.mDroppedFrameCount = mDroppedFrameCount;
+        mStats.mFrameDurationP50Nanos = getPercentile(count, 50);
+        mStats.mFrameDurationP95Nanos = getPercentile(count, 95);
+        mStats.mFrameDurationP99Nanos = getPercentile(count, 99);
+        mStats.mFirstMoveLatencyNanos = mFirstMoveLatencyNanos;
+        mListener.onFrameStats(mStats);
+    }
+
+    /**
+     * Method is used to stop monitoring without reporting, e.g. when the drawer is detached
+     */
+    void cancel() {
+        if (isRunning) {
+            isRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!isRunning) {
+            return;
+        }
+
+        mFrameCount++;
+        if (mLastFrameTimeNanos != 0) {
+            final long duration = frameTimeNanos - mLastFrameTimeNanos;
+            mFrameDurations[mDurationCount % FRAME_BUFFER_CAPACITY] = duration;
+            mDurationCount++;
+            // a frame that took more than one interval skipped the vsyncs in between
+            final long intervals = (duration + mFrameIntervalNanos / 2) / mFrameIntervalNanos;
+            if (intervals > 1) {
+                mDroppedFrameCount += intervals - 1;
+            }
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        if (mFirstMoveLatencyNanos < 0 && mAxis.getPosition(mView) != mStartPosition) {
+            mFirstMoveLatencyNanos = Math.max(0, frameTimeNanos - mInputTimeNanos);
+        }
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Method is used to read a percentile from the sorted frame durations
+     *
+     * @param count      The number of sorted frame durations
+     * @param percentile The percentile, 0 to 100
+     * @return The nearest-rank percentile, or 0 if there are no frame durations
+     */
+    private long getPercentile(int count, int percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final int rank = (percentile * count + 99) / 100;
+        return mSortedFrameDurations[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Method is used to get the vsync interval of the default display
+     *
+     * @param context Interface to global information about an application environment
+     * @return The frame interval in nanoseconds
+     */
+    private static long getFrameIntervalNanos(@NonNull Context context) {
+        final WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        if (Utils.checkIfNull(windowManager)) {
+            return DEFAULT_FRAME_INTERVAL_NANOS;
+        }
+        final Display display = windowManager.getDefaultDisplay();
+        if (Utils.checkIfNull(display) || display.getRefreshRate() < 1f) {
+            return DEFAULT_FRAME_INTERVAL_NANOS;
+        }
+        return (long) (1000000000L / display.getRefreshRate());
+    }
+}
@@ -0,0 +1,40 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * Posts the frame callbacks of {@link DrawerAnimationDriver}. Replaceable so that tests can keep
+ * the platform scheduler, which may allocate per posted callback, out of measured sections
+ */
+interface DrawerFrameScheduler {
+
+    /**
+     * Scheduler backed by the {@link Choreographer} of the main thread
+     */
+    DrawerFrameScheduler CHOREOGRAPHER = new DrawerFrameScheduler() {
+        @Override
+        public void postFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().postFrameCallback(callback);
+        }
+
+        @Override
+        public void removeFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().removeFrameCallback(callback);
+        }
+    };
+
+    /**
+     * Method is used to run a callback on the next frame
+     *
+     * @param callback The callback to run
+     */
+    void postFrameCallback(@NonNull Choreographer.FrameCallback callback);
+
+    /**
+     * Method is used to remove a callback that has not run yet
+     *
+     * @param callback The callback to remove
+     */
+    void removeFrameCallback(@NonNull Choreographer.FrameCallback callback);
+}
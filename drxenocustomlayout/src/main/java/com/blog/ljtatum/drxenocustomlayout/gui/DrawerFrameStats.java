@@ -0,0 +1,95 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+/**
+ * Frame timing of a single drag gesture or settle animation of {@link CustomDrawerLayout}.
+ * <p>A single instance is reused by the drawer, therefore the values are only valid during
+ * {@link CustomDrawerLayout.DrawerPerformanceListener#onFrameStats(DrawerFrameStats)}. Copy the
+ * values that need to be kept</p>
+ */
+@SuppressWarnings("unused")
+public final class DrawerFrameStats {
+
+    /**
+     * Phase for frames rendered while the drawer is dragged, by touch or by a nested
+     * scrolling child
+     */
+    public static final int PHASE_DRAG = 0;
+    /**
+     * Phase for frames rendered while the drawer settles on an anchor
+     */
+    public static final int PHASE_SETTLE = 1;
+
+    int mPhase;
+    int mFrameCount;
+    int mDroppedFrameCount;
+    long mFrameDurationP50Nanos, mFrameDurationP95Nanos, mFrameDurationP99Nanos;
+    long mFirstMoveLatencyNanos;
+
+    /**
+     * Constructor
+     */
+    DrawerFrameStats() {
+        // package-private, instances are owned by the drawer
+    }
+
+    /**
+     * @return The phase the frames were rendered in, e.g. {@link #PHASE_DRAG} or {@link #PHASE_SETTLE}
+     */
+    public int getPhase() {
+        return mPhase;
+    }
+
+    /**
+     * @return The number of frames rendered during the phase
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return The number of vsync intervals that were skipped between rendered frames
+     */
+    public int getDroppedFrameCount() {
+        return mDroppedFrameCount;
+    }
+
+    /**
+     * @return The median frame duration in nanoseconds, or 0 if less than two frames were rendered
+     */
+    public long getFrameDurationP50Nanos() {
+        return mFrameDurationP50Nanos;
+    }
+
+    /**
+     * @return The 95th percentile frame duration in nanoseconds, or 0 if less than two frames
+     * were rendered
+     */
+    public long getFrameDurationP95Nanos() {
+        return mFrameDurationP95Nanos;
+    }
+
+    /**
+     * @return The 99th percentile frame duration in nanoseconds, or 0 if less than two frames
+     * were rendered
+     */
+    public long getFrameDurationP99Nanos() {
+        return mFrameDurationP99Nanos;
+    }
+
+    /**
+     * @return The time in nanoseconds from the input that started the phase, e.g. the move that
+     * confirmed a drag, to the first frame in which the drawer moved, or -1 if the drawer did not
+     * move
+     */
+    public long getFirstMoveLatencyNanos() {
+        return mFirstMoveLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "DrawerFrameStats{phase=" + mPhase + ", frames=" + mFrameCount +
+                ", dropped=" + mDroppedFrameCount + ", p50=" + mFrameDurationP50Nanos +
+                ", p95=" + mFrameDurationP95Nanos + ", p99=" + mFrameDurationP99Nanos +
+                ", firstMoveLatency=" + mFirstMoveLatencyNanos + "}";
+    }
+}
@@ -0,0 +1,201 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.v4.view.ViewConfigurationCompat;
+import android.util.DisplayMetrics;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+/**
+ * Immutable geometry snapshot of {@link CustomDrawerLayout}. The snapshot is only rebuilt when
+ * the size, offset, configuration or system insets of the drawer, its layout position or the
+ * size of its parent change, therefore gesture and animation code read sizes, positions and
+ * thresholds without resource or parent lookups
+ */
+final class DrawerGeometry {
+
+    /**
+     * Minimum distance to indicate fling
+     */
+    private static final int MIN_DISTANCE_FOR_FLING = 10; // in dp
+
+    private final int mParentWidth, mParentHeight;
+    private final int mLength;
+    private final int mOffset;
+    private final float mClosedPosition, mOpenPosition;
+    private final int mDisplayWidth, mDisplayHeight;
+    private final float mDensity;
+    private final int mTouchSlop, mMinimumVelocity, mMaximumVelocity, mFlingDistance;
+    private final int mInsetLeft, mInsetTop, mInsetRight, mInsetBottom;
+
+    /**
+     * Constructor
+     *
+     * @param drawer The drawer
+     * @param axis   The axis strategy of the drawer
+     * @param offset The size of the part that sticks out when closed
+     * @param insets The system window insets dispatched to the drawer
+     */
+    private DrawerGeometry(@NonNull View drawer, @NonNull DrawerAxis axis, int offset, @NonNull Rect insets) {
+        mLength = axis.getLength(drawer);
+        mOffset = offset;
+        // before the drawer is attached to a parent it is treated as filling it
+        final View parent = drawer.getParent() instanceof View ? (View) drawer.getParent() : null;
+        mParentWidth = parent == null ? drawer.getWidth() : parent.getWidth();
+        mParentHeight = parent == null ? drawer.getHeight() : parent.getHeight();
+        final int parentLength = axis.select(mParentWidth, mParentHeight);
+        mClosedPosition = axis.getClosedPosition(parentLength, mLength, offset);
+        // the parent already placed the drawer on the edge it opens against
+        mOpenPosition = axis.getLayoutPosition(drawer);
+
+        final DisplayMetrics metrics = drawer.getResources().getDisplayMetrics();
+        mDisplayWidth = metrics.widthPixels;
+        mDisplayHeight = metrics.heightPixels;
+        mDensity = metrics.density;
+
+        // get system constants for touch thresholds
+        final ViewConfiguration configuration = ViewConfiguration.get(drawer.getContext());
+        mTouchSlop = ViewConfigurationCompat.getScaledPagingTouchSlop(configuration);
+        mMinimumVelocity = configuration.getScaledMinimumFlingVelocity() * 2;
+        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+        mFlingDistance = (int) (MIN_DISTANCE_FOR_FLING * mDensity);
+
+        mInsetLeft = insets.left;
+        mInsetTop = insets.top;
+        mInsetRight = insets.right;
+        mInsetBottom = insets.bottom;
+    }
+
+    /**
+     * Method is used to build a geometry snapshot of the drawer
+     *
+     * @param drawer The drawer
+     * @param axis   The axis strategy of the drawer
+     * @param offset The size of the part that sticks out when closed
+     * @param insets The system window insets dispatched to the drawer
+     * @return The geometry snapshot
+     */
+    static DrawerGeometry create(@NonNull View drawer, @NonNull DrawerAxis axis, int offset, @NonNull Rect insets) {
+        return new DrawerGeometry(drawer, axis, offset, insets);
+    }
+
+    /**
+     * @return The width of the parent of the drawer
+     */
+    int getParentWidth() {
+        return mParentWidth;
+    }
+
+    /**
+     * @return The height of the parent of the drawer
+     */
+    int getParentHeight() {
+        return mParentHeight;
+    }
+
+    /**
+     * @return The length of the drawer along its axis
+     */
+    int getLength() {
+        return mLength;
+    }
+
+    /**
+     * @return The size of the part that sticks out when closed
+     */
+    int getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * @return The position of the drawer when closed
+     */
+    float getClosedPosition() {
+        return mClosedPosition;
+    }
+
+    /**
+     * @return The position of the drawer when fully opened
+     */
+    float getOpenPosition() {
+        return mOpenPosition;
+    }
+
+    /**
+     * @return The width of the display in pixels
+     */
+    int getDisplayWidth() {
+        return mDisplayWidth;
+    }
+
+    /**
+     * @return The height of the display in pixels
+     */
+    int getDisplayHeight() {
+        return mDisplayHeight;
+    }
+
+    /**
+     * @return The logical density of the display
+     */
+    float getDensity() {
+        return mDensity;
+    }
+
+    /**
+     * @return The distance in pixels a touch can wander before it is a drag
+     */
+    int getTouchSlop() {
+        return mTouchSlop;
+    }
+
+    /**
+     * @return The minimum velocity in pixels per second to indicate a fling
+     */
+    int getMinimumVelocity() {
+        return mMinimumVelocity;
+    }
+
+    /**
+     * @return The maximum velocity in pixels per second of a fling
+     */
+    int getMaximumVelocity() {
+        return mMaximumVelocity;
+    }
+
+    /**
+     * @return The minimum travel distance in pixels for a fling
+     */
+    int getFlingDistance() {
+        return mFlingDistance;
+    }
+
+    /**
+     * @return The left system window inset in pixels
+     */
+    int getInsetLeft() {
+        return mInsetLeft;
+    }
+
+    /**
+     * @return The top system window inset in pixels
+     */
+    int getInsetTop() {
+        return mInsetTop;
+    }
+
+    /**
+     * @return The right system window inset in pixels
+     */
+    int getInsetRight() {
+        return mInsetRight;
+    }
+
+    /**
+     * @return The bottom system window inset in pixels
+     */
+    int getInsetBottom() {
+        return mInsetBottom;
+    }
+}
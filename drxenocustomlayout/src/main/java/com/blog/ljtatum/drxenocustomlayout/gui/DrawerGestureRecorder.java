@@ -0,0 +1,173 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.NonNull;
+import android.view.MotionEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records the motion events dispatched to a {@link CustomDrawerLayout} in a compact binary
+ * format, see {@link DrawerGestureRecording} for the format and for reading a recording back.
+ * Only the primary pointer is recorded. The historical samples of a batched move are recorded as
+ * separate move events. Must only be used from the main thread
+ */
+@SuppressWarnings("unused")
+public final class DrawerGestureRecorder {
+
+    /**
+     * Initial size of the record buffer, about 90 events
+     */
+    private static final int INITIAL_CAPACITY = 1024; // in bytes
+
+    private byte[] mBuffer = new byte[INITIAL_CAPACITY];
+    private int mSize;
+    private int mEventCount;
+    private long mLastEventTime = -1;
+
+    /**
+     * Method is used to append a motion event to the recording
+     *
+     * @param event The motion event dispatched to the drawer
+     */
+    void record(@NonNull MotionEvent event) {
+        final int action = event.getActionMasked();
+        if (action != MotionEvent.ACTION_DOWN && action != MotionEvent.ACTION_MOVE &&
+                action != MotionEvent.ACTION_UP && action != MotionEvent.ACTION_CANCEL) {
+            // secondary pointers are not recorded
+            return;
+        }
+
+        if (action == MotionEvent.ACTION_MOVE) {
+            // historical samples only carry local coordinates, the raw offset is the same for the batch
+            final float offsetX = event.getRawX() - event.getX();
+            final float offsetY = event.getRawY() - event.getY();
+            for (int i = 0; i < event.getHistorySize(); i++) {
+                writeEvent(action, event.getHistoricalEventTime(i),
+                        event.getHistoricalX(i) + offsetX, event.getHistoricalY(i) + offsetY);
+            }
+        }
+        writeEvent(action, event.getEventTime(), event.getRawX(), event.getRawY());
+    }
+
+    /**
+     * Method is used to append a single event record
+     *
+     * @param action    The masked action
+     * @param eventTime The time of the event in milliseconds, in the uptime time base
+     * @param rawX      The raw x coordinate
+     * @param rawY      The raw y coordinate
+     */
+    private void writeEvent(int action, long eventTime, float rawX, float rawY) {
+        final long delta = mLastEventTime < 0 ? 0 : Math.max(0, eventTime - mLastEventTime);
+        mLastEventTime = eventTime;
+        // action, time delta and two floats
+        ensureCapacity(1 + DrawerGestureRecording.MAX_VARINT_SIZE + 8);
+        mBuffer[mSize++] = (byte) action;
+        writeVarint(delta);
+        writeInt(Float.floatToIntBits(rawX));
+        writeInt(Float.floatToIntBits(rawY));
+        mEventCount++;
+    }
+
+    /**
+     * @return The number of recorded events
+     */
+    public int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * Method is used to discard all recorded events
+     */
+    public void clear() {
+        mSize = 0;
+        mEventCount = 0;
+        mLastEventTime = -1;
+    }
+
+    /**
+     * @return The recording, including its header
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[DrawerGestureRecording.HEADER_SIZE + mSize];
+        writeHeader(bytes);
+        System.arraycopy(mBuffer, 0, bytes, DrawerGestureRecording.HEADER_SIZE, mSize);
+        return bytes;
+    }
+
+    /**
+     * Method is used to write the recording, including its header
+     *
+     * @param out The stream to write to, it is not closed
+     * @throws IOException If the stream cannot be written
+     */
+    public void writeTo(@NonNull OutputStream out) throws IOException {
+        final byte[] header = new byte[DrawerGestureRecording.HEADER_SIZE];
+        writeHeader(header);
+        out.write(header);
+        out.write(mBuffer, 0, mSize);
+    }
+
+    /**
+     * Method is used to write the header, magic, version and event count
+     *
+     * @param out The array to write the header to
+     */
+    private void writeHeader(@NonNull byte[] out) {
+        putInt(out, 0, DrawerGestureRecording.MAGIC);
+        out[4] = DrawerGestureRecording.VERSION;
+        putInt(out, 5, mEventCount);
+    }
+
+    /**
+     * Method is used to grow the buffer if it cannot hold the given number of bytes
+     *
+     * @param bytes The number of bytes about to be written
+     */
+    private void ensureCapacity(int bytes) {
+        if (mSize + bytes > mBuffer.length) {
+            final byte[] buffer = new byte[Math.max(mBuffer.length * 2, mSize + bytes)];
+            System.arraycopy(mBuffer, 0, buffer, 0, mSize);
+            mBuffer = buffer;
+        }
+    }
+
+    /**
+     * Method is used to write an unsigned varint, 7 bits per byte, least significant group first
+     *
+     * @param value The non-negative value
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        mBuffer[mSize++] = (byte) value;
+    }
+
+    /**
+     * Method is used to write a big-endian int
+     *
+     * @param value The value
+     */
+    private void writeInt(int value) {
+        putInt(mBuffer, mSize, value);
+        mSize += 4;
+    }
+
+    /**
+     * Method is used to put a big-endian int into an array
+     *
+     * @param out    The array
+     * @param offset The offset of the first byte
+     * @param value  The value
+     */
+    private static void putInt(@NonNull byte[] out, int offset, int value) {
+        out[offset] = (byte) (value >>> 24);
+        out[offset + 1] = (byte) (value >>> 16);
+        out[offset + 2] = (byte) (value >>> 8);
+        out[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,143 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Motion events recorded by {@link DrawerGestureRecorder}. The binary format is big-endian:
+ * <ul>
+ * <li>header: int magic "DGR1", byte version, int event count</li>
+ * <li>per event: byte masked action, varint time since the previous event in milliseconds,
+ * float raw x, float raw y</li>
+ * </ul>
+ * A typical event takes 10 bytes. Event times are relative to the first event, therefore a
+ * recording can be replayed against any clock
+ */
+@SuppressWarnings("unused")
+public final class DrawerGestureRecording {
+
+    static final int MAGIC = 0x44475231; // "DGR1"
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 9; // in bytes
+    static final int MAX_VARINT_SIZE = 10; // in bytes
+    static final int MIN_EVENT_SIZE = 10; // in bytes, action, one byte time delta and two floats
+
+    private final int[] mActions;
+    private final long[] mEventTimes;
+    private final float[] mRawX, mRawY;
+
+    /**
+     * Constructor
+     *
+     * @param eventCount The number of events
+     */
+    private DrawerGestureRecording(int eventCount) {
+        mActions = new int[eventCount];
+        mEventTimes = new long[eventCount];
+        mRawX = new float[eventCount];
+        mRawY = new float[eventCount];
+    }
+
+    /**
+     * Method is used to read a recording
+     *
+     * @param bytes The recording, e.g. from {@link DrawerGestureRecorder#toByteArray()}
+     * @return The recorded events
+     * @throws IOException If the bytes are not a valid recording
+     */
+    @NonNull
+    public static DrawerGestureRecording parse(@NonNull byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_SIZE || getInt(bytes, 0) != MAGIC) {
+            throw new IOException("Not a drawer gesture recording");
+        }
+        if (bytes[4] != VERSION) {
+            throw new IOException("Unsupported recording version " + bytes[4]);
+        }
+        final int eventCount = getInt(bytes, 5);
+        // checked before allocating, a corrupt count must not allocate more than the data can hold
+        if (eventCount < 0 || eventCount > (bytes.length - HEADER_SIZE) / MIN_EVENT_SIZE) {
+            throw new IOException("Invalid event count " + eventCount);
+        }
+
+        final DrawerGestureRecording recording = new DrawerGestureRecording(eventCount);
+        int offset = HEADER_SIZE;
+        long eventTime = 0;
+        try {
+            for (int i = 0; i < eventCount; i++) {
+                recording.mActions[i] = bytes[offset++];
+                // varint time delta
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (shift >= 7 * MAX_VARINT_SIZE) {
+                        throw new IOException("Invalid time delta of event " + i);
+                    }
+                    b = bytes[offset++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                eventTime += delta;
+                recording.mEventTimes[i] = eventTime;
+                recording.mRawX[i] = Float.intBitsToFloat(getInt(bytes, offset));
+                recording.mRawY[i] = Float.intBitsToFloat(getInt(bytes, offset + 4));
+                offset += 8;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated drawer gesture recording", e);
+        }
+        return recording;
+    }
+
+    /**
+     * @return The number of recorded events
+     */
+    public int size() {
+        return mActions.length;
+    }
+
+    /**
+     * @param index The index of the event
+     * @return The masked action of the event, e.g. {@link android.view.MotionEvent#ACTION_DOWN}
+     */
+    public int getAction(int index) {
+        return mActions[index];
+    }
+
+    /**
+     * @param index The index of the event
+     * @return The time of the event in milliseconds, relative to the first event
+     */
+    public long getEventTime(int index) {
+        return mEventTimes[index];
+    }
+
+    /**
+     * @param index The index of the event
+     * @return The raw x coordinate of the event
+     */
+    public float getRawX(int index) {
+        return mRawX[index];
+    }
+
+    /**
+     * @param index The index of the event
+     * @return The raw y coordinate of the event
+     */
+    public float getRawY(int index) {
+        return mRawY[index];
+    }
+
+    /**
+     * Method is used to get a big-endian int from an array
+     *
+     * @param bytes  The array
+     * @param offset The offset of the first byte
+     * @return The value
+     */
+    private static int getInt(@NonNull byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 |
+                (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,160 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registry of {@link CustomDrawerLayout.OnInteractListener} subscribers. Listeners are kept in a
+ * copy-on-write array that is swapped atomically, therefore they can be added and removed from
+ * any thread without locks. Events are queued on the main thread and delivered to all listeners
+ * in a single batch on the next frame, so that many subscribers do not stretch the frame that
+ * settles the drawer
+ */
+final class DrawerListenerRegistry implements Choreographer.FrameCallback {
+
+    /**
+     * Events queued for the next dispatch
+     */
+    private static final int EVENT_OPENED = 0;
+    private static final int EVENT_CLOSED = 1;
+
+    /**
+     * Initial capacity of the event queue, a drawer rarely reports more than one event per frame
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    private static final CustomDrawerLayout.OnInteractListener[] EMPTY = new CustomDrawerLayout.OnInteractListener[0];
+
+    private final AtomicReference<CustomDrawerLayout.OnInteractListener[]> mListeners = new AtomicReference<>(EMPTY);
+    // events queued on the main thread since the last dispatch
+    private int[] mPendingEvents = new int[INITIAL_CAPACITY];
+    private int mPendingCount;
+    // flag to track if the frame callback is posted
+    private boolean isFramePosted;
+
+    /**
+     * Method is used to add a listener. Adding a listener that is already registered has no
+     * effect. May be called from any thread
+     *
+     * @param listener The listener to add
+     */
+    void add(@NonNull CustomDrawerLayout.OnInteractListener listener) {
+        while (true) {
+            final CustomDrawerLayout.OnInteractListener[] listeners = mListeners.get();
+            if (indexOf(listeners, listener) >= 0) {
+                return;
+            }
+            final CustomDrawerLayout.OnInteractListener[] updated =
+                    new CustomDrawerLayout.OnInteractListener[listeners.length + 1];
+            System.arraycopy(listeners, 0, updated, 0, listeners.length);
+            updated[listeners.length] = listener;
+            if (mListeners.compareAndSet(listeners, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Method is used to remove a listener. A listener removed before a batch starts does not
+     * receive the batch. May be called from any thread
+     *
+     * @param listener The listener to remove
+     */
+    void remove(@NonNull CustomDrawerLayout.OnInteractListener listener) {
+        while (true) {
+            final CustomDrawerLayout.OnInteractListener[] listeners = mListeners.get();
+            final int index = indexOf(listeners, listener);
+            if (index < 0) {
+                return;
+            }
+            final CustomDrawerLayout.OnInteractListener[] updated;
+            if (listeners.length == 1) {
+                updated = EMPTY;
+            } else {
+                updated = new CustomDrawerLayout.OnInteractListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, index);
+                System.arraycopy(listeners, index + 1, updated, index, listeners.length - index - 1);
+            }
+            if (mListeners.compareAndSet(listeners, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Method is used to queue the opened event for the next frame
+     */
+    @MainThread
+    void notifyOpened() {
+        enqueue(EVENT_OPENED);
+    }
+
+    /**
+     * Method is used to queue the closed event for the next frame
+     */
+    @MainThread
+    void notifyClosed() {
+        enqueue(EVENT_CLOSED);
+    }
+
+    /**
+     * Method is used to queue an event and post the batched dispatch, if there are listeners
+     *
+     * @param event The event, e.g. {@link #EVENT_OPENED}
+     */
+    private void enqueue(int event) {
+        if (mListeners.get().length == 0) {
+            return;
+        }
+        if (mPendingCount == mPendingEvents.length) {
+            final int[] events = new int[mPendingEvents.length * 2];
+            System.arraycopy(mPendingEvents, 0, events, 0, mPendingCount);
+            mPendingEvents = events;
+        }
+        mPendingEvents[mPendingCount++] = event;
+        if (!isFramePosted) {
+            isFramePosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFramePosted = false;
+        // events queued by the listeners themselves are delivered on the next frame
+        final int count = mPendingCount;
+        final CustomDrawerLayout.OnInteractListener[] listeners = mListeners.get();
+        for (int i = 0; i < count; i++) {
+            final int event = mPendingEvents[i];
+            for (CustomDrawerLayout.OnInteractListener listener : listeners) {
+                if (event == EVENT_OPENED) {
+                    listener.onDrawerOpened();
+                } else {
+                    listener.onDrawerClosed();
+                }
+            }
+        }
+        mPendingCount -= count;
+        System.arraycopy(mPendingEvents, count, mPendingEvents, 0, mPendingCount);
+    }
+
+    /**
+     * Method is used to find a listener
+     *
+     * @param listeners The listeners to search
+     * @param listener  The listener to find
+     * @return The index of the listener, or -1 if it is not registered
+     */
+    private static int indexOf(@NonNull CustomDrawerLayout.OnInteractListener[] listeners,
+                               @NonNull CustomDrawerLayout.OnInteractListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
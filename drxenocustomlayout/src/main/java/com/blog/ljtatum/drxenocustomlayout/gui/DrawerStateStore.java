@@ -0,0 +1,94 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.blog.ljtatum.drxenocustomlayout.utils.Utils;
+
+/**
+ * Open state of {@link CustomDrawerLayout} rows in a RecyclerView, keyed by adapter stable id.
+ * At most one row drawer is open at a time, therefore the store only keeps the id and anchor of
+ * the open row and binding a row does not allocate.
+ * <p>Create one store per list and bind every row drawer to it with
+ * {@link CustomDrawerLayout#bind(long, DrawerStateStore)} in onBindViewHolder. Must only be used
+ * from the main thread</p>
+ */
+@SuppressWarnings("unused")
+public final class DrawerStateStore {
+
+    /**
+     * Id used when no row drawer is open
+     */
+    public static final long NO_ID = -1;
+
+    // stable id and anchor of the open row
+    private long mOpenId = NO_ID;
+    private int mOpenAnchorIndex;
+    // drawer currently bound to the open row, may have been rebound to another row since
+    @Nullable
+    private CustomDrawerLayout mOpenDrawer;
+
+    /**
+     * @return The stable id of the open row, or {@link #NO_ID} if all rows are closed
+     */
+    public long getOpenId() {
+        return mOpenId;
+    }
+
+    /**
+     * Method is used to close all rows. Drawers that are bound to the open row are not animated,
+     * rebind them or call {@link CustomDrawerLayout#closeDrawer()}
+     */
+    public void clear() {
+        mOpenId = NO_ID;
+        mOpenAnchorIndex = 0;
+        mOpenDrawer = null;
+    }
+
+    /**
+     * @param id The stable id of the row
+     * @return The anchor index the row drawer rests on, 0 if closed
+     */
+    int getAnchorIndex(long id) {
+        return id != NO_ID && id == mOpenId ? mOpenAnchorIndex : 0;
+    }
+
+    /**
+     * Method is used to close the open row when another row drawer starts moving
+     *
+     * @param drawer The drawer that starts moving
+     * @param id     The stable id of the row the drawer is bound to
+     */
+    void onDrawerMoving(@NonNull CustomDrawerLayout drawer, long id) {
+        if (mOpenId == NO_ID || mOpenId == id) {
+            return;
+        }
+        if (!Utils.checkIfNull(mOpenDrawer) && mOpenDrawer != drawer &&
+                mOpenDrawer.getBoundId() == mOpenId) {
+            // the open row is still on screen, animate it closed
+            mOpenDrawer.closeDrawer();
+        }
+        clear();
+    }
+
+    /**
+     * Method is used to record the anchor a row drawer settled on
+     *
+     * @param drawer      The drawer that settled
+     * @param id          The stable id of the row the drawer is bound to
+     * @param anchorIndex The anchor index, 0 if closed
+     */
+    void onDrawerSettled(@NonNull CustomDrawerLayout drawer, long id, int anchorIndex) {
+        if (id == NO_ID) {
+            return;
+        }
+        if (anchorIndex > 0) {
+            onDrawerMoving(drawer, id);
+            mOpenId = id;
+            mOpenAnchorIndex = anchorIndex;
+            mOpenDrawer = drawer;
+        } else if (id == mOpenId) {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+/**
+ * Touch prediction for {@link CustomDrawerLayout}. The finger coordinate is extrapolated by the
+ * prediction horizon from the tracked velocity, so that the drawer is drawn where the finger is
+ * expected to be when the frame is displayed rather than where it was when the event was sampled.
+ * <p>Every prediction is compared against the touch samples once its target time has passed,
+ * which gives the mean absolute prediction error for tuning the horizon. Pending predictions are
+ * kept in preallocated ring buffers, therefore prediction does not allocate</p>
+ */
+final class DrawerTouchPredictor {
+
+    /**
+     * Number of predictions waiting for their target time. Predictions are made on every move
+     * event, the horizon covers a few of them at most
+     */
+    private static final int PENDING_CAPACITY = 16;
+
+    // prediction horizon in milliseconds, 0 if prediction is disabled
+    private int mHorizon;
+    // pending predictions, ordered by target time
+    private final long[] mPendingTimes = new long[PENDING_CAPACITY];
+    private final float[] mPendingCoordinates = new float[PENDING_CAPACITY];
+    private int mPendingStart, mPendingCount;
+    // last touch sample, used to interpolate the actual coordinate at a target time
+    private long mLastSampleTime;
+    private float mLastSampleCoordinate;
+    private boolean isLastSampleValid;
+    // accumulated absolute prediction error in pixels
+    private double mErrorSum;
+    private int mErrorCount;
+
+    /**
+     * @param horizon The prediction horizon in milliseconds, 0 to disable prediction
+     */
+    void setHorizon(int horizon) {
+        mHorizon = Math.max(0, horizon);
+    }
+
+    /**
+     * @return The prediction horizon in milliseconds, 0 if prediction is disabled
+     */
+    int getHorizon() {
+        return mHorizon;
+    }
+
+    /**
+     * @return True if a prediction horizon is set, otherwise false
+     */
+    boolean isEnabled() {
+        return mHorizon > 0;
+    }
+
+    /**
+     * Method is used to start a new gesture, pending predictions of the previous gesture are
+     * dropped
+     */
+    void reset() {
+        mPendingStart = 0;
+        mPendingCount = 0;
+        isLastSampleValid = false;
+    }
+
+    /**
+     * Method is used to add a touch sample and evaluate the pending predictions whose target time
+     * has passed
+     *
+     * @param time       The sample time in milliseconds, in the {@link android.os.SystemClock#uptimeMillis()} time base
+     * @param coordinate The raw coordinate of the sample along the drawer axis
+     */
+    void addSample(long time, float coordinate) {
+        while (mPendingCount > 0 && mPendingTimes[mPendingStart] <= time) {
+            final long targetTime = mPendingTimes[mPendingStart];
+            float actual = coordinate;
+            if (isLastSampleValid && time > mLastSampleTime && targetTime > mLastSampleTime) {
+                // interpolate the actual coordinate at the target time
+                actual = mLastSampleCoordinate + (coordinate - mLastSampleCoordinate) *
+                        (targetTime - mLastSampleTime) / (time - mLastSampleTime);
+            }
+            mErrorSum += Math.abs(mPendingCoordinates[mPendingStart] - actual);
+            mErrorCount++;
+            mPendingStart = (mPendingStart + 1) % PENDING_CAPACITY;
+            mPendingCount--;
+        }
+        mLastSampleTime = time;
+        mLastSampleCoordinate = coordinate;
+        isLastSampleValid = true;
+    }
+
+    /**
+     * Method is used to extrapolate a touch sample by the prediction horizon
+     *
+     * @param time       The sample time in milliseconds
+     * @param coordinate The raw coordinate of the sample along the drawer axis
+     * @param velocity   The velocity along the drawer axis in pixels per second
+     * @return The predicted raw coordinate, or the coordinate if prediction is disabled
+     */
+    float predict(long time, float coordinate, float velocity) {
+        if (mHorizon == 0) {
+            return coordinate;
+        }
+        final float predicted = coordinate + velocity * mHorizon / 1000f;
+
+        // keep the prediction for evaluation, the oldest one is dropped if the buffer is full
+        if (mPendingCount == PENDING_CAPACITY) {
+            mPendingStart = (mPendingStart + 1) % PENDING_CAPACITY;
+            mPendingCount--;
+        }
+        final int index = (mPendingStart + mPendingCount) % PENDING_CAPACITY;
+        mPendingTimes[index] = time + mHorizon;
+        mPendingCoordinates[index] = predicted;
+        mPendingCount++;
+        return predicted;
+    }
+
+    /**
+     * @return The mean absolute prediction error in pixels, or 0 if no prediction was evaluated
+     */
+    float getMeanError() {
+        return mErrorCount == 0 ? 0 : (float) (mErrorSum / mErrorCount);
+    }
+
+    /**
+     * Method is used to clear the accumulated prediction error
+     */
+    void resetError() {
+        mErrorSum = 0;
+        mErrorCount = 0;
+    }
+}
@@ -45,9 +45,17 @@ public class CustomDrawerLayoutUtils {
      * @return The y-axis value
      */
     public static int getLocationInYAxis(@NonNull View v) {
-        final int[] globalPos = new int[2];
-        v.getLocationInWindow(globalPos);
-        return globalPos[1];
+        return getLocationInYAxis(v, new int[2]);
+    }
+
+    /**
+     * @param v        This class represents the basic building block for user interface components
+     * @param outArray Reusable array of two integers to hold the location, avoids an allocation
+     * @return The y-axis value
+     */
+    public static int getLocationInYAxis(@NonNull View v, @NonNull int[] outArray) {
+        v.getLocationInWindow(outArray);
+        return outArray[1];
     }
 
     /**
@@ -55,9 +63,17 @@ public class CustomDrawerLayoutUtils {
      * @return The x-axis value
      */
     public static int getLocationInXAxis(@NonNull View v) {
-        final int[] globalPos = new int[2];
-        v.getLocationInWindow(globalPos);
-        return globalPos[0];
+        return getLocationInXAxis(v, new int[2]);
+    }
+
+    /**
+     * @param v        This class represents the basic building block for user interface components
+     * @param outArray Reusable array of two integers to hold the location, avoids an allocation
+     * @return The x-axis value
+     */
+    public static int getLocationInXAxis(@NonNull View v, @NonNull int[] outArray) {
+        v.getLocationInWindow(outArray);
+        return outArray[0];
     }
 
     /**
@@ -71,6 +87,17 @@ public class CustomDrawerLayoutUtils {
                 distance(context, diff) < MAX_CLICK_DISTANCE;
     }
 
+    /**
+     * @param density       The logical density of the display, e.g. from a cached DisplayMetrics
+     * @param diff          The difference in time (milliseconds) between interaction with CTA
+     * @param pressDuration The duration the user interacted with the CTA
+     * @return True if user interaction was a valid single click
+     */
+    public static boolean isClicked(float density, float diff, long pressDuration) {
+        return pressDuration < MAX_CLICK_DURATION &&
+                Math.abs(diff) / density < MAX_CLICK_DISTANCE;
+    }
+
     /**
      * @param context Interface to global information about an application environment
      * @param diff    The difference in time (milliseconds) between interaction with CTA
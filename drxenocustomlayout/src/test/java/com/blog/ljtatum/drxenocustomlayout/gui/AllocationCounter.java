@@ -0,0 +1,47 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Helper used to measure the number of bytes allocated by the current thread
+ */
+final class AllocationCounter {
+
+    private final com.sun.management.ThreadMXBean mThreadMXBean;
+    private final long mThreadId;
+    // bytes allocated by the measurement itself
+    private final long mOverhead;
+    private long mStartBytes;
+
+    /**
+     * Constructor
+     */
+    AllocationCounter() {
+        mThreadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        mThreadId = Thread.currentThread().getId();
+
+        // calibrate the cost of reading the allocation counter
+        final long first = getAllocatedBytes();
+        mOverhead = getAllocatedBytes() - first;
+    }
+
+    /**
+     * Method is used to start measuring allocations
+     */
+    void start() {
+        mStartBytes = getAllocatedBytes();
+    }
+
+    /**
+     * Method is used to stop measuring allocations
+     *
+     * @return The number of bytes allocated since {@link #start()}
+     */
+    long stop() {
+        return getAllocatedBytes() - mStartBytes - mOverhead;
+    }
+
+    private long getAllocatedBytes() {
+        return mThreadMXBean.getThreadAllocatedBytes(mThreadId);
+    }
+}
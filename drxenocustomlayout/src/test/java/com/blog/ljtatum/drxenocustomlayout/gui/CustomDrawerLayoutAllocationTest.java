@@ -0,0 +1,89 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.view.MotionEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.FRAME_INTERVAL;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.HEIGHT;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.TOUCH_INSET;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that a full drag, release and settle cycle does not allocate once warmed up. The
+ * settle animations run frame by frame through {@link ManualFrameScheduler}, so the per-frame path
+ * of the animation driver is measured as well. The Robolectric Choreographer allocates per posted
+ * callback and would be measured with the drawer.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class CustomDrawerLayoutAllocationTest {
+
+    private static final int DRAG_STEPS = 10;
+    private static final int WARM_UP_CYCLES = 3;
+
+    private DrawerTestFixture mFixture;
+    private CustomDrawerLayout mCustomDrawerLayout;
+    private MotionEvent[] mOpenGesture;
+    private MotionEvent[] mCloseGesture;
+
+    @Before
+    public void setUp() {
+        mFixture = new DrawerTestFixture();
+        mCustomDrawerLayout = mFixture.getDrawer();
+        mOpenGesture = DrawerTestFixture.obtainDrag(HEIGHT - TOUCH_INSET, HEIGHT / 2,
+                DRAG_STEPS, FRAME_INTERVAL, 0);
+        mCloseGesture = DrawerTestFixture.obtainDrag(TOUCH_INSET, HEIGHT / 2 + TOUCH_INSET,
+                DRAG_STEPS, FRAME_INTERVAL, 1000);
+    }
+
+    @After
+    public void tearDown() {
+        mFixture.tearDown();
+        DrawerTestFixture.recycle(mOpenGesture);
+        DrawerTestFixture.recycle(mCloseGesture);
+    }
+
+    @Test
+    public void dragReleaseSettle_togglesLockMode() {
+        assertTrue(mCustomDrawerLayout.isClosed());
+
+        mFixture.dispatchAndSettle(mOpenGesture);
+        assertTrue(mCustomDrawerLayout.isOpened());
+        assertEquals(0f, mCustomDrawerLayout.getY(), 0f);
+
+        mFixture.dispatchAndSettle(mCloseGesture);
+        assertTrue(mCustomDrawerLayout.isClosed());
+    }
+
+    @Test
+    public void dragReleaseSettle_doesNotAllocate() {
+        for (int i = 0; i < WARM_UP_CYCLES; i++) {
+            runCycle();
+        }
+
+        final ManualFrameScheduler scheduler = mFixture.getFrameScheduler();
+        final int frameCount = scheduler.getFrameCount();
+        final AllocationCounter counter = new AllocationCounter();
+        counter.start();
+        runCycle();
+        final long allocatedBytes = counter.stop();
+
+        // both settle animations were advanced by frames, not only ended
+        assertTrue("settle frames run", scheduler.getFrameCount() - frameCount > 2);
+        assertEquals("bytes allocated during drag-release-settle cycle", 0, allocatedBytes);
+        // the settle animations ran to completion, no frame callback is left behind
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    private void runCycle() {
+        mFixture.dispatchAndSettle(mOpenGesture);
+        mFixture.dispatchAndSettle(mCloseGesture);
+    }
+}
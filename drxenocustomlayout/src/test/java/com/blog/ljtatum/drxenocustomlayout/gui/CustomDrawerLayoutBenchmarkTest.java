@@ -0,0 +1,181 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.view.MotionEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.FRAME_INTERVAL;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.HEIGHT;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.TOUCH_INSET;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.obtainDrag;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.obtainPress;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Regression benchmark of the touch pipeline. Synthetic drag, fling and tap gestures are driven
+ * through intercept, touch handling and settle. The time per event and bytes allocated per
+ * gesture are reported on every run, to the test output and to one file per gesture in the
+ * directory set with drawer.benchmark.reportDir. Budgets are checked after reporting, the time
+ * budget can be overridden with drawer.benchmark.maxNanosPerEvent. Allocations are only checked
+ * if drawer.benchmark.maxBytesPerGesture is set, {@link CustomDrawerLayoutAllocationTest} checks
+ * that the pipeline does not allocate.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class CustomDrawerLayoutBenchmarkTest {
+
+    /**
+     * Median time budget per dispatched event, generous enough for a shared CI machine
+     */
+    private static final long MAX_NANOS_PER_EVENT =
+            Long.getLong("drawer.benchmark.maxNanosPerEvent", 1000000L);
+    /**
+     * Allocation budget per gesture, unbounded unless set
+     */
+    private static final long MAX_BYTES_PER_GESTURE =
+            Long.getLong("drawer.benchmark.maxBytesPerGesture", Long.MAX_VALUE);
+    /**
+     * Directory of the report files, relative to the module when run by Gradle
+     */
+    private static final String REPORT_DIR =
+            System.getProperty("drawer.benchmark.reportDir", "build/reports/drawer-benchmark");
+
+    private static final int WARM_UP_CYCLES = 20;
+    private static final int MEASURED_CYCLES = 50;
+    private static final int DRAG_STEPS = 10;
+    private static final int FLING_STEPS = 3;
+    private static final int FLING_STEP_DISTANCE = 4; // in px, stays within the touch slop
+    private static final int FLING_INTERVAL = 4; // in ms
+    private static final int TAP_DURATION = 50; // in ms
+
+    private DrawerTestFixture mFixture;
+    private CustomDrawerLayout mCustomDrawerLayout;
+    private MotionEvent[][] mGestures;
+
+    @Before
+    public void setUp() {
+        mFixture = new DrawerTestFixture();
+        mCustomDrawerLayout = mFixture.getDrawer();
+    }
+
+    @After
+    public void tearDown() {
+        mFixture.tearDown();
+        if (mGestures != null) {
+            for (MotionEvent[] gesture : mGestures) {
+                DrawerTestFixture.recycle(gesture);
+            }
+        }
+    }
+
+    @Test
+    public void drag_staysWithinBudget() throws IOException {
+        mGestures = new MotionEvent[][]{
+                obtainDrag(HEIGHT - TOUCH_INSET, HEIGHT / 2, DRAG_STEPS, FRAME_INTERVAL, 0),
+                obtainDrag(TOUCH_INSET, HEIGHT / 2 + TOUCH_INSET, DRAG_STEPS, FRAME_INTERVAL, 1000)};
+        benchmark("drag", CustomDrawerLayout.GESTURE_DRAG);
+    }
+
+    @Test
+    public void fling_staysWithinBudget() throws IOException {
+        // short and fast, flings on the part that sticks out when closed
+        final int distance = FLING_STEPS * FLING_STEP_DISTANCE;
+        mGestures = new MotionEvent[][]{
+                obtainDrag(HEIGHT - TOUCH_INSET, HEIGHT - TOUCH_INSET - distance, FLING_STEPS, FLING_INTERVAL, 0),
+                obtainDrag(TOUCH_INSET, TOUCH_INSET + distance, FLING_STEPS, FLING_INTERVAL, 1000)};
+        benchmark("fling", CustomDrawerLayout.GESTURE_FLING);
+    }
+
+    @Test
+    public void tap_staysWithinBudget() throws IOException {
+        mGestures = new MotionEvent[][]{
+                obtainPress(HEIGHT - TOUCH_INSET, TAP_DURATION, 0),
+                obtainPress(TOUCH_INSET, TAP_DURATION, 1000)};
+        benchmark("tap", CustomDrawerLayout.GESTURE_TAP);
+    }
+
+    /**
+     * Method is used to run the gestures in cycles, each cycle opens and closes the drawer, to
+     * report the median time per event and the allocations per gesture and to check them against
+     * the budgets
+     *
+     * @param name            The name of the gesture, used in the report and assertion messages
+     * @param expectedGesture The classification every gesture must get
+     * @throws IOException If the report cannot be written
+     */
+    private void benchmark(String name, int expectedGesture) throws IOException {
+        // the gestures have to take the intended path through the pipeline
+        assertTrue(mCustomDrawerLayout.isClosed());
+        mFixture.dispatchAndSettle(mGestures[0]);
+        assertEquals(expectedGesture, mCustomDrawerLayout.getLastGesture());
+        assertTrue(mCustomDrawerLayout.isOpened());
+        mFixture.dispatchAndSettle(mGestures[1]);
+        assertEquals(expectedGesture, mCustomDrawerLayout.getLastGesture());
+        assertTrue(mCustomDrawerLayout.isClosed());
+
+        for (int i = 0; i < WARM_UP_CYCLES; i++) {
+            runCycle();
+        }
+
+        final int eventsPerCycle = mGestures[0].length + mGestures[1].length;
+        final long[] cycleNanos = new long[MEASURED_CYCLES];
+        long maxCycleBytes = 0;
+        final AllocationCounter counter = new AllocationCounter();
+        for (int i = 0; i < MEASURED_CYCLES; i++) {
+            counter.start();
+            final long start = System.nanoTime();
+            runCycle();
+            cycleNanos[i] = System.nanoTime() - start;
+            maxCycleBytes = Math.max(maxCycleBytes, counter.stop());
+        }
+        Arrays.sort(cycleNanos);
+        final long nanosPerEvent = cycleNanos[MEASURED_CYCLES / 2] / eventsPerCycle;
+        final long bytesPerGesture = maxCycleBytes / mGestures.length;
+
+        // reported before the budgets are checked, so that passing runs report as well
+        final String result = name + ": " + nanosPerEvent + " ns/event (median), " +
+                bytesPerGesture + " bytes/gesture (max)";
+        report(name, result);
+
+        assertTrue(result + ", time budget " + MAX_NANOS_PER_EVENT + " ns/event",
+                nanosPerEvent <= MAX_NANOS_PER_EVENT);
+        assertTrue(result + ", allocation budget " + MAX_BYTES_PER_GESTURE + " bytes/gesture",
+                bytesPerGesture <= MAX_BYTES_PER_GESTURE);
+    }
+
+    /**
+     * Method is used to write the result of a gesture to the test output and to its report file
+     *
+     * @param name   The name of the gesture, used as the name of the report file
+     * @param result The result of the gesture
+     * @throws IOException If the report cannot be written
+     */
+    private static void report(String name, String result) throws IOException {
+        System.out.println("drawer benchmark " + result);
+        final File dir = new File(REPORT_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create report directory " + dir.getAbsolutePath());
+        }
+        try (Writer writer = new FileWriter(new File(dir, name + ".txt"))) {
+            writer.write(result);
+            writer.write('\n');
+        }
+    }
+
+    private void runCycle() {
+        mFixture.dispatchAndSettle(mGestures[0]);
+        mFixture.dispatchAndSettle(mGestures[1]);
+    }
+}
@@ -0,0 +1,168 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.HEIGHT;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.TOUCH_INSET;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.WIDTH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that children outside the peek area are not drawn, or hidden, while the drawer rests
+ * closed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class CustomDrawerLayoutCullingTest {
+
+    private static final int OFFSET = 100; // in px
+    private static final int DRAG_DISTANCE = 100; // in px
+
+    private DrawerTestFixture mFixture;
+    private CustomDrawerLayout mCustomDrawerLayout;
+    private DrawCountingView mPeekView;
+    private DrawCountingView mContentView;
+    private Bitmap mBitmap;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mFixture = new DrawerTestFixture();
+        mCustomDrawerLayout = mFixture.getDrawer();
+        mCustomDrawerLayout.setOffsetHeight(OFFSET);
+        final Context context = mCustomDrawerLayout.getContext();
+
+        // peek area at the top of the bottom drawer, content below it
+        mPeekView = new DrawCountingView(context);
+        mCustomDrawerLayout.addView(mPeekView, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, OFFSET));
+        mContentView = new DrawCountingView(context);
+        final FrameLayout.LayoutParams contentParams = new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT);
+        contentParams.topMargin = OFFSET;
+        mCustomDrawerLayout.addView(mContentView, contentParams);
+        mFixture.layout();
+
+        mBitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+    }
+
+    @After
+    public void tearDown() {
+        mFixture.tearDown();
+        mBitmap.recycle();
+    }
+
+    @Test
+    public void drawWhileClosed_withoutCulling_drawsAllChildren() {
+        assertTrue(mCustomDrawerLayout.isClosed());
+
+        draw();
+        assertEquals(1, mPeekView.mDrawCount);
+        assertEquals(1, mContentView.mDrawCount);
+    }
+
+    @Test
+    public void drawWhileClosed_withDrawCulling_skipsChildrenOutsidePeek() {
+        mCustomDrawerLayout.setCullingMode(CustomDrawerLayout.CullingMode.CULLING_MODE_DRAW);
+
+        draw();
+        assertEquals(1, mPeekView.mDrawCount);
+        assertEquals(0, mContentView.mDrawCount);
+    }
+
+    @Test
+    public void drawWhileOpened_withDrawCulling_drawsAllChildren() {
+        mCustomDrawerLayout.setCullingMode(CustomDrawerLayout.CullingMode.CULLING_MODE_DRAW);
+        mCustomDrawerLayout.openDrawer();
+        mFixture.settle();
+        assertTrue(mCustomDrawerLayout.isOpened());
+
+        draw();
+        assertEquals(1, mPeekView.mDrawCount);
+        assertEquals(1, mContentView.mDrawCount);
+    }
+
+    @Test
+    public void layoutCulling_hidesChildrenOutsidePeekUntilMoved() {
+        mCustomDrawerLayout.setCullingMode(CustomDrawerLayout.CullingMode.CULLING_MODE_LAYOUT);
+        assertEquals(View.VISIBLE, mPeekView.getVisibility());
+        assertEquals(View.INVISIBLE, mContentView.getVisibility());
+        assertFalse(mCustomDrawerLayout.isLayoutRequested());
+
+        // touching the peek area does not move the drawer
+        final long now = SystemClock.uptimeMillis();
+        dispatch(now, now, MotionEvent.ACTION_DOWN, HEIGHT - OFFSET / 2);
+        assertEquals(View.INVISIBLE, mContentView.getVisibility());
+
+        // restored once the drag moves the drawer, without a layout pass
+        dispatch(now, now + 16, MotionEvent.ACTION_MOVE, HEIGHT - OFFSET / 2 - DRAG_DISTANCE);
+        assertEquals(View.VISIBLE, mContentView.getVisibility());
+        assertFalse(mCustomDrawerLayout.isLayoutRequested());
+
+        // hidden again once the cancelled drag settles back on its closed position
+        dispatch(now, now + 32, MotionEvent.ACTION_CANCEL, HEIGHT - OFFSET / 2 - DRAG_DISTANCE);
+        mFixture.settle();
+        assertTrue(mCustomDrawerLayout.isClosed());
+        assertEquals(View.INVISIBLE, mContentView.getVisibility());
+    }
+
+    @Test
+    public void layoutCulling_keepsVisibilitySetWhileHidden() {
+        mCustomDrawerLayout.setCullingMode(CustomDrawerLayout.CullingMode.CULLING_MODE_LAYOUT);
+        assertEquals(View.INVISIBLE, mContentView.getVisibility());
+        mContentView.setVisibility(View.GONE);
+
+        final long now = SystemClock.uptimeMillis();
+        dispatch(now, now, MotionEvent.ACTION_DOWN, HEIGHT - OFFSET / 2);
+        dispatch(now, now + 16, MotionEvent.ACTION_MOVE, HEIGHT - OFFSET / 2 - DRAG_DISTANCE);
+        assertEquals(View.GONE, mContentView.getVisibility());
+        dispatch(now, now + 32, MotionEvent.ACTION_CANCEL, HEIGHT - OFFSET / 2 - DRAG_DISTANCE);
+        mFixture.settle();
+    }
+
+    private void dispatch(long downTime, long eventTime, int action, float y) {
+        final MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, TOUCH_INSET, y, 0);
+        mFixture.getParent().dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    private void draw() {
+        mPeekView.mDrawCount = 0;
+        mContentView.mDrawCount = 0;
+        mCustomDrawerLayout.draw(mCanvas);
+    }
+
+    /**
+     * Child view counting its draw calls
+     */
+    private static class DrawCountingView extends View {
+
+        int mDrawCount;
+
+        DrawCountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            super.onDraw(canvas);
+            mDrawCount++;
+        }
+    }
+}
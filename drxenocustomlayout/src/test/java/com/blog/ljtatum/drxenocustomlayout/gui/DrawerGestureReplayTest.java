@@ -0,0 +1,124 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.view.MotionEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.FRAME_INTERVAL;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.HEIGHT;
+import static com.blog.ljtatum.drxenocustomlayout.gui.DrawerTestFixture.TOUCH_INSET;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that recorded gestures survive the binary format and replay to the same
+ * classification, independent of the time they are replayed at.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class DrawerGestureReplayTest {
+
+    private static final int DRAG_STEPS = 10;
+    private static final int HOLD_DURATION = 1500; // in ms
+
+    private DrawerTestFixture mFixture;
+    private CustomDrawerLayout mCustomDrawerLayout;
+
+    @Before
+    public void setUp() {
+        mFixture = new DrawerTestFixture();
+        mCustomDrawerLayout = mFixture.getDrawer();
+    }
+
+    @After
+    public void tearDown() {
+        mFixture.tearDown();
+    }
+
+    @Test
+    public void recording_roundTripsThroughBinaryFormat() throws IOException {
+        final DrawerGestureRecorder recorder = new DrawerGestureRecorder();
+        mCustomDrawerLayout.setGestureRecorder(recorder);
+        dispatchDrag(HEIGHT - TOUCH_INSET, HEIGHT / 2, 1000);
+        mCustomDrawerLayout.setGestureRecorder(null);
+        assertEquals(DRAG_STEPS + 2, recorder.getEventCount());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorder.writeTo(out);
+        assertArrayEquals(recorder.toByteArray(), out.toByteArray());
+
+        final DrawerGestureRecording recording = DrawerGestureRecording.parse(out.toByteArray());
+        assertEquals(DRAG_STEPS + 2, recording.size());
+        assertEquals(MotionEvent.ACTION_DOWN, recording.getAction(0));
+        assertEquals(MotionEvent.ACTION_UP, recording.getAction(DRAG_STEPS + 1));
+        // times are relative to the first event
+        assertEquals(0, recording.getEventTime(0));
+        assertEquals(DRAG_STEPS * FRAME_INTERVAL, recording.getEventTime(DRAG_STEPS + 1));
+        assertEquals(HEIGHT - TOUCH_INSET, recording.getRawY(0), 0f);
+        assertEquals(HEIGHT / 2, recording.getRawY(DRAG_STEPS + 1), 0f);
+    }
+
+    @Test(expected = IOException.class)
+    public void parse_rejectsInvalidData() throws IOException {
+        DrawerGestureRecording.parse(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+    }
+
+    @Test(expected = IOException.class)
+    public void parse_rejectsEventCountBeyondData() throws IOException {
+        // valid header announcing more events than the data can hold
+        DrawerGestureRecording.parse(new byte[]{0x44, 0x47, 0x52, 0x31, DrawerGestureRecording.VERSION,
+                0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+    }
+
+    @Test
+    public void replay_classifiesRecordedGesturesDeterministically() throws IOException {
+        // drag open, tap to close, hold without moving
+        final DrawerGestureRecorder recorder = new DrawerGestureRecorder();
+        mCustomDrawerLayout.setGestureRecorder(recorder);
+        dispatchDrag(HEIGHT - TOUCH_INSET, HEIGHT / 2, 1000);
+        assertTrue(mCustomDrawerLayout.isOpened());
+        dispatchPress(TOUCH_INSET, FRAME_INTERVAL, 2000);
+        assertTrue(mCustomDrawerLayout.isClosed());
+        dispatchPress(HEIGHT - TOUCH_INSET, HOLD_DURATION, 3000);
+        mCustomDrawerLayout.setGestureRecorder(null);
+        final DrawerGestureRecording recording = DrawerGestureRecording.parse(recorder.toByteArray());
+
+        // replaying at different times gives the same result
+        final DrawerGestureReplayer replayer = new DrawerGestureReplayer(mFixture.getParent(), mCustomDrawerLayout);
+        for (long baseTime : new long[]{10000, 987654321}) {
+            mCustomDrawerLayout.reset(CustomDrawerLayout.LockMode.LOCK_MODE_CLOSED);
+            final DrawerGestureReplayer.Result result = replayer.replay(recording, baseTime);
+
+            assertEquals(3, result.getGestureCount());
+            assertEquals(CustomDrawerLayout.GESTURE_DRAG, result.getGesture(0));
+            assertEquals(mCustomDrawerLayout.getAnchorCount() - 1, result.getAnchorIndex(0));
+            assertEquals(CustomDrawerLayout.GESTURE_TAP, result.getGesture(1));
+            assertEquals(0, result.getAnchorIndex(1));
+            assertEquals(CustomDrawerLayout.GESTURE_HOLD, result.getGesture(2));
+            assertEquals(0, result.getAnchorIndex(2));
+            assertTrue(result.getTotalProcessingNanos() > 0);
+        }
+    }
+
+    private void dispatchDrag(int fromY, int toY, long downTime) {
+        dispatchAndRecycle(DrawerTestFixture.obtainDrag(fromY, toY, DRAG_STEPS, FRAME_INTERVAL, downTime));
+    }
+
+    private void dispatchPress(int y, long duration, long downTime) {
+        dispatchAndRecycle(DrawerTestFixture.obtainPress(y, duration, downTime));
+    }
+
+    private void dispatchAndRecycle(MotionEvent[] gesture) {
+        mFixture.dispatchAndSettle(gesture);
+        DrawerTestFixture.recycle(gesture);
+    }
+}
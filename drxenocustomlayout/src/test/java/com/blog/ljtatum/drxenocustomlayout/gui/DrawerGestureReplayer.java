@@ -0,0 +1,148 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.view.MotionEvent;
+import android.view.ViewGroup;
+
+/**
+ * Replays a {@link DrawerGestureRecording} against a drawer on the JVM. Events are dispatched
+ * to the root of the drawer hierarchy with their raw coordinates, the drawer clock follows the
+ * recorded event times, and every settle animation is run to completion when a gesture ends.
+ * The root is expected to be laid out at the origin of the recorded screen.
+ */
+final class DrawerGestureReplayer {
+
+    private final ViewGroup mRoot;
+    private final CustomDrawerLayout mDrawer;
+    private final ReplayClock mClock = new ReplayClock();
+
+    /**
+     * Constructor
+     *
+     * @param root   The root the recorded events are dispatched to
+     * @param drawer The drawer under test, a descendant of root
+     */
+    DrawerGestureReplayer(ViewGroup root, CustomDrawerLayout drawer) {
+        mRoot = root;
+        mDrawer = drawer;
+        mDrawer.setClock(mClock);
+    }
+
+    /**
+     * Method is used to replay a recording
+     *
+     * @param recording The recorded events
+     * @param baseTime  The time of the first event in milliseconds, in the uptime time base
+     * @return The classification and processing time of the replayed gestures
+     */
+    Result replay(DrawerGestureRecording recording, long baseTime) {
+        final Result result = new Result(recording.size(), countGestures(recording));
+        long downTime = baseTime;
+        int gesture = 0;
+        for (int i = 0; i < recording.size(); i++) {
+            final int action = recording.getAction(i);
+            final long eventTime = baseTime + recording.getEventTime(i);
+            if (action == MotionEvent.ACTION_DOWN) {
+                downTime = eventTime;
+            }
+            mClock.mNanos = eventTime * 1000000L;
+
+            final MotionEvent event = MotionEvent.obtain(downTime, eventTime, action,
+                    recording.getRawX(i), recording.getRawY(i), 0);
+            final long start = System.nanoTime();
+            mRoot.dispatchTouchEvent(event);
+            result.mProcessingNanos[i] = System.nanoTime() - start;
+            event.recycle();
+
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                mDrawer.endSettleAnimation();
+                result.mGestures[gesture] = mDrawer.getLastGesture();
+                result.mAnchorIndices[gesture] = mDrawer.getAnchorIndex();
+                gesture++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param recording The recorded events
+     * @return The number of gestures that end in the recording
+     */
+    private static int countGestures(DrawerGestureRecording recording) {
+        int count = 0;
+        for (int i = 0; i < recording.size(); i++) {
+            final int action = recording.getAction(i);
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Classification, resting anchor and per-event processing time of a replay
+     */
+    static final class Result {
+
+        private final long[] mProcessingNanos;
+        private final int[] mGestures;
+        private final int[] mAnchorIndices;
+
+        private Result(int eventCount, int gestureCount) {
+            mProcessingNanos = new long[eventCount];
+            mGestures = new int[gestureCount];
+            mAnchorIndices = new int[gestureCount];
+        }
+
+        int getGestureCount() {
+            return mGestures.length;
+        }
+
+        /**
+         * @param index The index of the gesture
+         * @return The classification of the gesture, e.g. {@link CustomDrawerLayout#GESTURE_DRAG}
+         */
+        int getGesture(int index) {
+            return mGestures[index];
+        }
+
+        /**
+         * @param index The index of the gesture
+         * @return The anchor the drawer rests on after the gesture
+         */
+        int getAnchorIndex(int index) {
+            return mAnchorIndices[index];
+        }
+
+        /**
+         * @param index The index of the event
+         * @return The time spent dispatching the event in nanoseconds
+         */
+        long getProcessingNanos(int index) {
+            return mProcessingNanos[index];
+        }
+
+        /**
+         * @return The total time spent dispatching events in nanoseconds
+         */
+        long getTotalProcessingNanos() {
+            long total = 0;
+            for (long nanos : mProcessingNanos) {
+                total += nanos;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Clock that follows the replayed event times
+     */
+    private static final class ReplayClock implements DrawerClock {
+
+        long mNanos;
+
+        @Override
+        public long nanoTime() {
+            return mNanos;
+        }
+    }
+}
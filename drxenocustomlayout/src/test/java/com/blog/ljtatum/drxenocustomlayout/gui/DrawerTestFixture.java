@@ -0,0 +1,168 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.app.Activity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.RelativeLayout;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Drawer filling a laid out parent, shared by the touch pipeline tests. Frame callbacks of the
+ * animation driver are posted to a {@link ManualFrameScheduler}, therefore the Robolectric
+ * Choreographer does not allocate while a test measures allocations. Must be created from a
+ * Robolectric test and released with {@link #tearDown()}
+ */
+final class DrawerTestFixture {
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 1920;
+    static final int FRAME_INTERVAL = 16; // in ms
+    static final int TOUCH_INSET = 50; // in px
+    /**
+     * Upper bound for the frames of a settle animation, far above the longest settle duration
+     */
+    private static final int MAX_SETTLE_FRAMES = 100;
+
+    private final RelativeLayout mParent;
+    private final CustomDrawerLayout mCustomDrawerLayout;
+    private final ManualFrameScheduler mFrameScheduler = new ManualFrameScheduler();
+    private long mFrameTimeNanos;
+
+    /**
+     * Constructor, lays out a closed drawer in a parent of {@link #WIDTH} by {@link #HEIGHT}
+     */
+    DrawerTestFixture() {
+        DrawerAnimationDriver.getInstance().setFrameScheduler(mFrameScheduler);
+
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+        mParent = new RelativeLayout(activity);
+        mCustomDrawerLayout = new CustomDrawerLayout(activity);
+        mParent.addView(mCustomDrawerLayout, new RelativeLayout.LayoutParams(
+                RelativeLayout.LayoutParams.MATCH_PARENT, RelativeLayout.LayoutParams.MATCH_PARENT));
+        activity.setContentView(mParent);
+        layout();
+    }
+
+    /**
+     * Method is used to measure and lay out the parent, e.g. after children are added to the
+     * drawer, and to run the tasks posted meanwhile
+     */
+    void layout() {
+        mParent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mParent.layout(0, 0, WIDTH, HEIGHT);
+        ShadowLooper.idleMainLooper();
+    }
+
+    /**
+     * Method is used to restore the Choreographer backed frame scheduler
+     */
+    void tearDown() {
+        DrawerAnimationDriver.getInstance().setFrameScheduler(DrawerFrameScheduler.CHOREOGRAPHER);
+    }
+
+    /**
+     * @return The parent the events are dispatched to
+     */
+    RelativeLayout getParent() {
+        return mParent;
+    }
+
+    /**
+     * @return The drawer under test
+     */
+    CustomDrawerLayout getDrawer() {
+        return mCustomDrawerLayout;
+    }
+
+    /**
+     * @return The scheduler the animation driver posts its frame callback to
+     */
+    ManualFrameScheduler getFrameScheduler() {
+        return mFrameScheduler;
+    }
+
+    /**
+     * Method is used to dispatch a gesture to the parent and run the settle animation that it
+     * starts to completion
+     *
+     * @param gesture The events of the gesture
+     */
+    void dispatchAndSettle(MotionEvent[] gesture) {
+        for (MotionEvent event : gesture) {
+            mParent.dispatchTouchEvent(event);
+        }
+        settle();
+    }
+
+    /**
+     * Method is used to run frames {@link #FRAME_INTERVAL} apart until the animation driver has
+     * no frame callback posted, i.e. until the settle animation finished
+     */
+    void settle() {
+        for (int i = 0; i < MAX_SETTLE_FRAMES && mFrameScheduler.getPendingCount() > 0; i++) {
+            mFrameTimeNanos += FRAME_INTERVAL * 1000000L;
+            mFrameScheduler.doFrame(mFrameTimeNanos);
+        }
+        if (mFrameScheduler.getPendingCount() > 0) {
+            throw new IllegalStateException("Settle animation did not finish within " +
+                    MAX_SETTLE_FRAMES + " frames");
+        }
+    }
+
+    /**
+     * Method is used to obtain a vertical drag at {@link #TOUCH_INSET} from the left edge. The
+     * release happens at the last move
+     *
+     * @param fromY    The y coordinate of the touch down
+     * @param toY      The y coordinate of the last move and the release
+     * @param steps    The number of moves
+     * @param interval The time between two events in milliseconds
+     * @param downTime The time of the touch down in milliseconds
+     * @return The events of the gesture, to be recycled by the caller
+     */
+    static MotionEvent[] obtainDrag(int fromY, int toY, int steps, int interval, long downTime) {
+        final MotionEvent[] events = new MotionEvent[steps + 2];
+        final float x = TOUCH_INSET;
+        events[0] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, fromY, 0);
+        for (int i = 1; i <= steps; i++) {
+            final float y = fromY + (toY - fromY) * i / (float) steps;
+            events[i] = MotionEvent.obtain(downTime, downTime + i * interval,
+                    MotionEvent.ACTION_MOVE, x, y, 0);
+        }
+        events[steps + 1] = MotionEvent.obtain(downTime, downTime + steps * interval,
+                MotionEvent.ACTION_UP, x, toY, 0);
+        return events;
+    }
+
+    /**
+     * Method is used to obtain a press without movement at {@link #TOUCH_INSET} from the left edge
+     *
+     * @param y        The y coordinate of the press
+     * @param duration The time between touch down and release in milliseconds
+     * @param downTime The time of the touch down in milliseconds
+     * @return The events of the gesture, to be recycled by the caller
+     */
+    static MotionEvent[] obtainPress(int y, long duration, long downTime) {
+        final float x = TOUCH_INSET;
+        return new MotionEvent[]{
+                MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0),
+                MotionEvent.obtain(downTime, downTime + duration, MotionEvent.ACTION_UP, x, y, 0)};
+    }
+
+    /**
+     * Method is used to recycle the events of a gesture
+     *
+     * @param gesture The events of the gesture, may be null
+     */
+    static void recycle(MotionEvent[] gesture) {
+        if (gesture == null) {
+            return;
+        }
+        for (MotionEvent event : gesture) {
+            event.recycle();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.blog.ljtatum.drxenocustomlayout.gui;
+
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * Frame scheduler that only keeps track of the posted callbacks. Unlike the Robolectric
+ * Choreographer it does not allocate when a callback is posted, therefore it can be used while
+ * allocations are measured. Frames are only produced by the test with {@link #doFrame(long)}
+ */
+final class ManualFrameScheduler implements DrawerFrameScheduler {
+
+    private static final int CAPACITY = 4;
+
+    private final Choreographer.FrameCallback[] mCallbacks = new Choreographer.FrameCallback[CAPACITY];
+    // callbacks of the frame being run, preallocated so that running a frame does not allocate
+    private final Choreographer.FrameCallback[] mRunning = new Choreographer.FrameCallback[CAPACITY];
+    private int mFrameCount;
+
+    @Override
+    public void postFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+        for (int i = 0; i < CAPACITY; i++) {
+            if (mCallbacks[i] == null) {
+                mCallbacks[i] = callback;
+                return;
+            }
+        }
+        throw new IllegalStateException("Too many posted frame callbacks");
+    }
+
+    @Override
+    public void removeFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+        for (int i = 0; i < CAPACITY; i++) {
+            if (mCallbacks[i] == callback) {
+                mCallbacks[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Method is used to run the posted callbacks, like a vsync of the Choreographer. Callbacks
+     * posted while the frame runs are kept for the next frame
+     *
+     * @param frameTimeNanos The time of the frame in nanoseconds
+     */
+    void doFrame(long frameTimeNanos) {
+        System.arraycopy(mCallbacks, 0, mRunning, 0, CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            mCallbacks[i] = null;
+        }
+        mFrameCount++;
+        for (int i = 0; i < CAPACITY; i++) {
+            final Choreographer.FrameCallback callback = mRunning[i];
+            if (callback != null) {
+                mRunning[i] = null;
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+    }
+
+    /**
+     * @return The number of frames run with {@link #doFrame(long)}
+     */
+    int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return The number of posted callbacks that have not run
+     */
+    int getPendingCount() {
+        int count = 0;
+        for (Choreographer.FrameCallback callback : mCallbacks) {
+            if (callback != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}